@@ -0,0 +1,39 @@
+package ru.practicum.shareit.batch.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.batch.model.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.model.dto.BatchResponseDto;
+import ru.practicum.shareit.batch.service.BatchService;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/batch")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class BatchController {
+
+    private final BatchService batchService;
+
+    @PostMapping
+    public CompletableFuture<BatchResponseDto> executeBatch(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+                                                            @Valid @RequestBody BatchRequestDto batchRequestDto,
+                                                            HttpServletRequest request) {
+        log.info("Поступил POST запрос в BatchController: метод executeBatch(), userId={}, подзапросов={}",
+                userId, batchRequestDto.getRequests().size());
+        return batchService.execute(userId,
+                RateLimiter.clientKey(userId == null ? null : userId.toString(), request.getRemoteAddr()),
+                batchRequestDto);
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.batch.model.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Getter
+@Setter
+public class BatchRequestDto {
+    @NotEmpty
+    @Size(max = 20)
+    private List<@Valid SubRequestDto> requests;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.batch.model.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+@Getter
+public class BatchResponseDto {
+    private final List<SubResponseDto> responses;
+}
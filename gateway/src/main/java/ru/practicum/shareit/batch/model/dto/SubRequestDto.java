@@ -0,0 +1,22 @@
+package ru.practicum.shareit.batch.model.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+
+@Getter
+@Setter
+public class SubRequestDto {
+    // Метка, по которой клиент сопоставляет ответ с запросом
+    private String id;
+
+    // Пакет предназначен для чтения экрана, поэтому поддерживается только GET
+    @Pattern(regexp = "GET", message = "Поддерживаются только GET запросы")
+    private String method = "GET";
+
+    // Путь с параметрами, например /bookings/owner?state=ALL&from=0&size=10
+    @NotBlank
+    private String path;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.batch.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+@Getter
+public class SubResponseDto {
+    private final String id;
+    private final int status;
+    // JSON ответа shareit-server без повторного разбора
+    @JsonRawValue
+    private final String body;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.batch.service;
+
+import org.springframework.http.HttpStatus;
+
+// Подзапрос отклонён до обращения к shareit-server
+class BadSubRequestException extends RuntimeException {
+    private final HttpStatus status;
+
+    BadSubRequestException(HttpStatus status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    HttpStatus getStatus() {
+        return status;
+    }
+}
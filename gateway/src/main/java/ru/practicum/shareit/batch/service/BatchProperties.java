@@ -0,0 +1,18 @@
+package ru.practicum.shareit.batch.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit-gateway.batch")
+@Getter
+@Setter
+public class BatchProperties {
+    // Общий срок пакета: не успевшие подзапросы получают 504
+    private Duration timeout = Duration.ofSeconds(5);
+    // Потоки для подзапросов (в режиме rest-template вызов shareit-server блокирующий)
+    private int threads = 32;
+    private int queueCapacity = 500;
+}
@@ -0,0 +1,278 @@
+package ru.practicum.shareit.batch.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import ru.practicum.shareit.batch.model.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.model.dto.BatchResponseDto;
+import ru.practicum.shareit.batch.model.dto.SubRequestDto;
+import ru.practicum.shareit.batch.model.dto.SubResponseDto;
+import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.client.RequestDeadline;
+import ru.practicum.shareit.error.ErrorResponse;
+import ru.practicum.shareit.exception.UnsupportedStateException;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.ratelimit.RateLimitProperties;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+import ru.practicum.shareit.request.controller.ItemRequestController;
+import ru.practicum.shareit.user.controller.UserController;
+
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolationException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Выполняет подзапросы пакета параллельно через методы контроллеров gateway:
+// так к ним применяются те же ограничения @Positive/@PositiveOrZero и проверка state,
+// а к вызовам shareit-server - кэш, single-flight и circuit breaker клиентов
+@Service
+@Slf4j
+public class BatchService {
+    private final Map<PathPattern, Function<SubRequestContext, CompletableFuture<ResponseEntity<Object>>>> routes =
+            new LinkedHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+    private final RateLimiter rateLimiter;
+    private final boolean rateLimitEnabled;
+
+    public BatchService(UserController userController,
+                        ItemController itemController,
+                        BookingController bookingController,
+                        ItemRequestController itemRequestController,
+                        BatchProperties properties,
+                        RateLimitProperties rateLimitProperties,
+                        RateLimiter rateLimiter,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry) {
+        this.timeout = properties.getTimeout();
+        this.objectMapper = objectMapper;
+        this.rateLimiter = rateLimiter;
+        this.rateLimitEnabled = rateLimitProperties.isEnabled();
+
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("batch-"));
+        executor.allowCoreThreadTimeOut(true);
+        new ExecutorServiceMetrics(executor, "gateway.batch", Tags.empty()).bindTo(meterRegistry);
+
+        // Пути без переменных регистрируются раньше: /items/search до /items/{itemId}
+        route("/users", context -> userController.getAllUsers(
+                context.intParam("from", 0), context.intParam("size", 10)));
+        route("/users/{userId}", context -> userController.getUserById(context.pathId("userId")));
+        route("/items", context -> itemController.getAllItemsByUser(context.userId(),
+                context.intParam("from", 0), context.intParam("size", 10)));
+        route("/items/search", context -> itemController.searchAvailableItems(context.requiredParam("text"),
+                context.intParam("from", 0), context.intParam("size", 10)));
+        route("/items/{itemId}", context -> itemController.getItemById(context.userId(),
+                context.pathId("itemId")));
+        route("/bookings", context -> bookingController.getUserBookingsByState(context.userId(),
+                context.param("state", "ALL"), context.intParam("from", 0), context.intParam("size", 10),
+                context.param("cursor", null)));
+        route("/bookings/owner", context -> bookingController.getOwnerBookingsByState(context.userId(),
+                context.param("state", "ALL"), context.intParam("from", 0), context.intParam("size", 10),
+                context.param("cursor", null)));
+        route("/bookings/{bookingId}", context -> bookingController.getBookingById(context.userId(),
+                context.pathId("bookingId")));
+        route("/requests", context -> itemRequestController.getUserRequests(context.userId()));
+        route("/requests/all", context -> itemRequestController.getRequestsFromOthers(context.userId(),
+                context.intParam("from", 0), context.intParam("size", 10)));
+        route("/requests/{requestId}", context -> itemRequestController.getRequestByReqId(context.userId(),
+                context.pathId("requestId")));
+    }
+
+    public CompletableFuture<BatchResponseDto> execute(Long userId, long clientKey, BatchRequestDto batchRequestDto) {
+        // Срок отсчитывается от приёма пакета, все подзапросы ставятся в очередь одновременно
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<CompletableFuture<SubResponseDto>> responses = new ArrayList<>();
+        for (SubRequestDto subRequest : batchRequestDto.getRequests()) {
+            responses.add(submit(userId, clientKey, subRequest, deadline));
+        }
+
+        return CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> new BatchResponseDto(responses.stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList())));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void route(String pattern,
+                       Function<SubRequestContext, CompletableFuture<ResponseEntity<Object>>> handler) {
+        routes.put(PathPatternParser.defaultInstance.parse(pattern), handler);
+    }
+
+    private CompletableFuture<SubResponseDto> submit(Long userId, long clientKey, SubRequestDto subRequest,
+                                                     long deadline) {
+        CompletableFuture<CompletableFuture<ResponseEntity<Object>>> task;
+        try {
+            // Клиенты сокращают таймауты вызова shareit-server до оставшегося срока пакета
+            task = CompletableFuture.supplyAsync(() -> RequestDeadline.callWithin(deadline,
+                    () -> dispatch(userId, clientKey, subRequest)), executor);
+        } catch (RejectedExecutionException e) {
+            task = CompletableFuture.completedFuture(CompletableFuture.completedFuture(
+                    error(HttpStatus.SERVICE_UNAVAILABLE, "Очередь подзапросов переполнена")));
+        }
+
+        CompletableFuture<CompletableFuture<ResponseEntity<Object>>> started = task;
+        return task.thenCompose(Function.identity())
+                .exceptionally(e -> handleException(subRequest, e))
+                .completeOnTimeout(timeoutError(), deadline - System.nanoTime(), TimeUnit.NANOSECONDS)
+                // Подзапрос, не дождавшийся потока до срока, из очереди уже не запустится
+                .whenComplete((result, e) -> started.cancel(false))
+                .thenApply(result -> new SubResponseDto(subRequest.getId(), result.getStatusCodeValue(),
+                        toJson(result)));
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> dispatch(Long userId, long clientKey, SubRequestDto subRequest) {
+        UriComponents uri = UriComponentsBuilder.fromUriString(subRequest.getPath()).build();
+        String path = uri.getPath() == null ? "" : uri.getPath();
+
+        for (Map.Entry<PathPattern, Function<SubRequestContext, CompletableFuture<ResponseEntity<Object>>>> route
+                : routes.entrySet()) {
+            PathPattern.PathMatchInfo match = route.getKey().matchAndExtract(PathContainer.parsePath(path));
+            if (match == null) {
+                continue;
+            }
+
+            // Подзапросы считаются в тех же лимитах, что и обычные запросы к маршруту
+            if (rateLimitEnabled) {
+                long wait = rateLimiter.tryAcquire(path, clientKey);
+                if (wait == RateLimiter.SHED) {
+                    return CompletableFuture.completedFuture(error(HttpStatus.SERVICE_UNAVAILABLE,
+                            "shareit-server перегружен, повторите запрос позже"));
+                }
+                if (wait != RateLimiter.ALLOWED) {
+                    return CompletableFuture.completedFuture(error(HttpStatus.TOO_MANY_REQUESTS,
+                            "Слишком много запросов к " + path));
+                }
+            }
+
+            return route.getValue().apply(new SubRequestContext(userId, match.getUriVariables(),
+                    uri.getQueryParams()));
+        }
+
+        return CompletableFuture.completedFuture(error(HttpStatus.NOT_FOUND,
+                String.format("Путь %s не поддерживается в пакетном запросе", path)));
+    }
+
+    private ResponseEntity<Object> handleException(SubRequestDto subRequest, Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+        if (cause instanceof BadSubRequestException) {
+            return error(((BadSubRequestException) cause).getStatus(), cause.getMessage());
+        }
+        if (cause instanceof ConstraintViolationException) {
+            return error(HttpStatus.BAD_REQUEST, cause.getMessage());
+        }
+        if (cause instanceof UnsupportedStateException) {
+            return ResponseEntity.badRequest()
+                    .body(new ErrorResponse("Unknown state: UNSUPPORTED_STATUS", cause.getMessage()));
+        }
+        if (isTimeout(cause)) {
+            return timeoutError();
+        }
+
+        log.warn("При выполнении подзапроса {} {} произошла ошибка {}",
+                subRequest.getMethod(), subRequest.getPath(), cause.getMessage());
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, cause.getMessage());
+    }
+
+    // Вызов shareit-server оборван по сроку пакета: TimeoutException в режиме web-client,
+    // SocketTimeoutException или ожидание соединения из пула в режиме rest-template
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof InterruptedIOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ResponseEntity<Object> timeoutError() {
+        return error(HttpStatus.GATEWAY_TIMEOUT, String.format("Подзапрос не выполнен за %d мс", timeout.toMillis()));
+    }
+
+    private static ResponseEntity<Object> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(new ErrorResponse(status.getReasonPhrase(), message));
+    }
+
+    private String toJson(ResponseEntity<Object> response) {
+        Object body = response.getBody();
+        if (body == null) {
+            return null;
+        }
+        if (!(body instanceof byte[])) {
+            return write(body);
+        }
+
+        byte[] bytes = (byte[]) body;
+        if (bytes.length == 0) {
+            return null;
+        }
+        // Байты вставляются в ответ пакета без разбора, поэтому должны быть JSON.
+        // Тело без Content-Type (ошибка shareit-server вне режима pass-through) проверяется,
+        // а не-JSON (например, текстовая страница ошибки) передаётся JSON-строкой
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        MediaType contentType = response.getHeaders().getContentType();
+        boolean json = contentType != null ? isJson(contentType) : isValidJson(bytes);
+        return json ? text : write(text);
+    }
+
+    private static boolean isJson(MediaType contentType) {
+        return MediaType.APPLICATION_JSON.isCompatibleWith(contentType) || contentType.getSubtype().endsWith("+json");
+    }
+
+    private boolean isValidJson(byte[] bytes) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(bytes)) {
+            if (parser.nextToken() == null) {
+                return false;
+            }
+            parser.skipChildren();
+            return parser.nextToken() == null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private String write(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
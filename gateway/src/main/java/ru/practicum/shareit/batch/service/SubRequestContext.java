@@ -0,0 +1,74 @@
+package ru.practicum.shareit.batch.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.util.MultiValueMap;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// Аргументы подзапроса для вызова метода контроллера
+class SubRequestContext {
+    private final Long userId;
+    private final Map<String, String> pathVariables;
+    private final MultiValueMap<String, String> queryParams;
+
+    SubRequestContext(Long userId, Map<String, String> pathVariables, MultiValueMap<String, String> queryParams) {
+        this.userId = userId;
+        this.pathVariables = pathVariables;
+        this.queryParams = queryParams;
+    }
+
+    Long userId() {
+        if (userId == null) {
+            throw new BadSubRequestException(HttpStatus.BAD_REQUEST, "Отсутствует заголовок X-Sharer-User-Id");
+        }
+        return userId;
+    }
+
+    Long pathId(String name) {
+        String value = pathVariables.get(name);
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadSubRequestException(HttpStatus.BAD_REQUEST,
+                    String.format("Некорректное значение %s=%s", name, value));
+        }
+    }
+
+    String param(String name, String defaultValue) {
+        String value = queryParams.getFirst(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        // Строка запроса в path не раскодирована; + означает пробел, как в обычном GET
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadSubRequestException(HttpStatus.BAD_REQUEST,
+                    String.format("Некорректное значение %s=%s", name, value));
+        }
+    }
+
+    String requiredParam(String name) {
+        String value = param(name, null);
+        if (value == null) {
+            throw new BadSubRequestException(HttpStatus.BAD_REQUEST,
+                    String.format("Отсутствует параметр %s", name));
+        }
+        return value;
+    }
+
+    int intParam(String name, int defaultValue) {
+        String value = param(name, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new BadSubRequestException(HttpStatus.BAD_REQUEST,
+                    String.format("Некорректное значение %s=%s", name, value));
+        }
+    }
+}
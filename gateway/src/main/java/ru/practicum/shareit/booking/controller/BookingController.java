@@ -13,6 +13,7 @@ import ru.practicum.shareit.exception.UnsupportedStateException;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/bookings")
@@ -24,53 +25,55 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                 @PathVariable Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                    @PathVariable Long bookingId) {
         log.info("Поступил GET запрос в BookingController. " +
                 "Метод getBookingById(), userId={}, bookingId={} ", userId, bookingId);
         return bookingClient.getBookingById(bookingId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserBookingsByState(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                         @RequestParam(defaultValue = "ALL") String state,
-                                                         @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                         @Positive @RequestParam(defaultValue = "10") int size) {
+    public CompletableFuture<ResponseEntity<Object>> getUserBookingsByState(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                            @RequestParam(defaultValue = "ALL") String state,
+                                                                            @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                                            @Positive @RequestParam(defaultValue = "10") int size,
+                                                                            @RequestParam(required = false) String cursor) {
         log.info("Поступил GET запрос в BookingController. " +
                 "Метод getUserBookingsByState(), userId={} ", userId);
 
         String bookingState = State.from(state)
                 .orElseThrow(() -> new UnsupportedStateException(String.format("State=%s не поддерживается", state)));
 
-        return bookingClient.getUserBookingsByState(userId, bookingState, from, size);
+        return bookingClient.getUserBookingsByState(userId, bookingState, from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getOwnerBookingsByState(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                          @RequestParam(defaultValue = "ALL") String state,
-                                                          @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                          @Positive @RequestParam(defaultValue = "10") int size) {
+    public CompletableFuture<ResponseEntity<Object>> getOwnerBookingsByState(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                             @RequestParam(defaultValue = "ALL") String state,
+                                                                             @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                                             @Positive @RequestParam(defaultValue = "10") int size,
+                                                                             @RequestParam(required = false) String cursor) {
         log.info("Поступил GET запрос в BookingController. " +
                 "Метод getOwnerBookingsByState(), userId={} ", userId);
 
         String bookingState = State.from(state)
                 .orElseThrow(() -> new UnsupportedStateException(String.format("State=%s не поддерживается", state)));
 
-        return bookingClient.getOwnerBookingsByState(userId, bookingState, from, size);
+        return bookingClient.getOwnerBookingsByState(userId, bookingState, from, size, cursor);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                @Valid @RequestBody ReqBookingDto reqBookingDto) {
+    public CompletableFuture<ResponseEntity<Object>> createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                   @Valid @RequestBody ReqBookingDto reqBookingDto) {
         log.info("Поступил POST запрос в BookingController. " +
                 "Метод createBooking(), userId={}, reqBookingDto={} ", userId, reqBookingDto);
         return bookingClient.createBooking(userId, reqBookingDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                @PathVariable Long bookingId,
-                                                @RequestParam Boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> updateBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                   @PathVariable Long bookingId,
+                                                                   @RequestParam Boolean approved) {
         log.info("Поступил PATCH запрос в BookingController. " +
                 "Метод updateBooking(), userId={}, bookingId={}, approved={} ", userId, bookingId, approved);
         return bookingClient.updateBooking(userId, bookingId, approved);
@@ -1,69 +1,110 @@
 package ru.practicum.shareit.booking.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.model.dto.ReqBookingDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ProxyEngineFactory;
+import ru.practicum.shareit.item.service.ItemClient;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
+@Slf4j
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final ItemClient itemClient;
+    private final ObjectMapper objectMapper;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         ProxyEngineFactory engineFactory,
+                         ItemClient itemClient,
+                         ObjectMapper objectMapper) {
+        super(engineFactory.create(serverUrl + API_PREFIX));
+        this.itemClient = itemClient;
+        this.objectMapper = objectMapper;
     }
 
-    public ResponseEntity<Object> getBookingById(long bookingId, long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getBookingById(long bookingId, long userId) {
         String path = "/" + bookingId;
         return get(path, userId);
     }
 
-    public ResponseEntity<Object> getUserBookingsByState(long userId, String state, int from, int size) {
-        String path = "?state={state}&from={from}&size={size}";
-
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size);
-
-        return get(path, userId, parameters);
+    public CompletableFuture<ResponseEntity<Object>> getUserBookingsByState(long userId, String state, int from, int size,
+                                                                            String cursor) {
+        String path = pageQuery(cursor);
+        return get(path, userId, pageParameters(state, from, size, cursor));
     }
 
-    public ResponseEntity<Object> getOwnerBookingsByState(long userId, String state, int from, int size) {
-        String path = "/owner?state={state}&from={from}&size={size}";
-
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size);
-
-        return get(path, userId, parameters);
+    public CompletableFuture<ResponseEntity<Object>> getOwnerBookingsByState(long userId, String state, int from, int size,
+                                                                             String cursor) {
+        String path = "/owner" + pageQuery(cursor);
+        return get(path, userId, pageParameters(state, from, size, cursor));
     }
 
-    public ResponseEntity<Object> createBooking(long userId, ReqBookingDto reqBookingDto) {
+    public CompletableFuture<ResponseEntity<Object>> createBooking(long userId, ReqBookingDto reqBookingDto) {
         String path = "";
         return post(path, userId, reqBookingDto);
     }
 
-    public ResponseEntity<Object> updateBooking(long userId, long bookingId, Boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> updateBooking(long userId, long bookingId, Boolean approved) {
         String path = "/{bookingId}?approved={approved}";
 
         Map<String, Object> parameters = Map.of(
                 "bookingId", bookingId,
                 "approved", approved);
 
-        return patch(path, userId, parameters, null);
+        return patch(path, userId, parameters, null).thenApply(response -> {
+            if (Boolean.TRUE.equals(approved) && response.getStatusCode().is2xxSuccessful()) {
+                evictBookedItem(response.getBody());
+            }
+            return response;
+        });
+    }
+
+    // С cursor shareit-server отдаёт страницу по курсору и заголовок X-Next-Cursor, без него - по from/size
+    private static String pageQuery(String cursor) {
+        return cursor == null
+                ? "?state={state}&from={from}&size={size}"
+                : "?state={state}&size={size}&cursor={cursor}";
+    }
+
+    private static Map<String, Object> pageParameters(String state, int from, int size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
+    }
+
+    // Подтверждённое бронирование меняет lastBooking/nextBooking вещи,
+    // поэтому её карточка удаляется из кэша ItemClient
+    private void evictBookedItem(Object body) {
+        try {
+            JsonNode booking = body instanceof byte[]
+                    ? objectMapper.readTree((byte[]) body)
+                    : objectMapper.valueToTree(body);
+            JsonNode itemId = booking.path("item").path("id");
+            if (itemId.canConvertToLong()) {
+                itemClient.evictItem(itemId.asLong());
+                return;
+            }
+        } catch (IOException e) {
+            log.warn("Не удалось прочитать id вещи из ответа на подтверждение бронирования: {}", e.getMessage());
+        }
+        itemClient.evictAllItems();
     }
 }
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Способ доставки запроса из gateway в shareit-server.
+// Реализация выбирается настройкой shareit-server.engine
+public interface ProxyEngine {
+    // Заголовки ответа shareit-server, которые gateway отдаёт клиенту в режиме pass-through
+    List<String> PASS_THROUGH_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, "X-Next-Cursor");
+    byte[] EMPTY_BODY = new byte[0];
+
+    CompletableFuture<ResponseEntity<Object>> exchange(ProxyRequest request);
+
+    static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+
+        if (response.hasBody()) {
+            return responseBuilder.body(response.getBody());
+        }
+
+        return responseBuilder.build();
+    }
+
+    // Ответ shareit-server отдаётся клиенту как есть: байты тела без разбора Jackson
+    // и только нужные заголовки (без Transfer-Encoding, Connection и т.п.)
+    static ResponseEntity<Object> preparePassThroughResponse(int status, HttpHeaders serverHeaders, byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String header : PASS_THROUGH_HEADERS) {
+            List<String> values = serverHeaders.get(header);
+            if (values != null) {
+                headers.put(header, values);
+            }
+        }
+
+        // RestTemplate отдаёт пустое тело как null, WebClient - как пустой массив
+        return ResponseEntity.status(status).headers(headers).body(body == null ? EMPTY_BODY : body);
+    }
+}
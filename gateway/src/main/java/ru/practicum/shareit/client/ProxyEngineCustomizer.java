@@ -0,0 +1,21 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.stream.Collectors;
+
+// Декоратор поверх ProxyEngine клиента (single-flight, circuit breaker и т.п.).
+// Применяются по порядку @Order: каждый следующий оборачивает результат предыдущего,
+// т.е. последний по порядку первым получает запрос от BaseClient
+public interface ProxyEngineCustomizer {
+
+    ProxyEngine customize(String baseUrl, ProxyEngine engine);
+
+    static ProxyEngine applyAll(ObjectProvider<ProxyEngineCustomizer> customizers, String baseUrl, ProxyEngine engine) {
+        ProxyEngine result = engine;
+        for (ProxyEngineCustomizer customizer : customizers.orderedStream().collect(Collectors.toList())) {
+            result = customizer.customize(baseUrl, result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.client;
+
+public interface ProxyEngineFactory {
+
+    ProxyEngine create(String baseUrl);
+}
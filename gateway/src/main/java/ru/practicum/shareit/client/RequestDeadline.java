@@ -0,0 +1,41 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// Срок, к которому должен завершиться вызов shareit-server, начатый в текущем потоке.
+// Движки читают его в момент отправки запроса и сокращают по нему свои таймауты,
+// поэтому просроченный вызов обрывается сам, а не продолжает занимать поток и соединение
+public final class RequestDeadline {
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    // deadline - момент по System.nanoTime()
+    public static <T> T callWithin(long deadline, Supplier<T> call) {
+        Long previous = DEADLINE.get();
+        DEADLINE.set(deadline);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                DEADLINE.remove();
+            } else {
+                DEADLINE.set(previous);
+            }
+        }
+    }
+
+    // Оставшееся время (не меньше 1 мс) или null, если срок не задан
+    @Nullable
+    static Duration remaining() {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return null;
+        }
+        return Duration.ofNanos(Math.max(deadline - System.nanoTime(), Duration.ofMillis(1).toNanos()));
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpServerErrorException;
+import ru.practicum.shareit.error.ErrorResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+// Изоляция клиента shareit-server: bulkhead ограничивает число одновременных вызовов,
+// circuit breaker при частых ошибках и медленных ответах сразу отвечает 503,
+// а после паузы пропускает несколько пробных вызовов (half-open)
+public class ResilientProxyEngine implements ProxyEngine {
+    private final ProxyEngine delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final String retryAfter;
+
+    public ResilientProxyEngine(ProxyEngine delegate,
+                                CircuitBreaker circuitBreaker,
+                                Bulkhead bulkhead,
+                                Duration waitInOpenState) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.retryAfter = String.valueOf(Math.max(1, waitInOpenState.toSeconds()));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(ProxyRequest request) {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return reject("Сервис " + circuitBreaker.getName() + " временно недоступен");
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            return reject("Слишком много одновременных запросов к сервису " + bulkhead.getName());
+        }
+
+        long start = circuitBreaker.getCurrentTimestamp();
+        CompletableFuture<ResponseEntity<Object>> response;
+        try {
+            response = delegate.exchange(request);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        return response.whenComplete((result, e) -> {
+            bulkhead.onComplete();
+            long duration = circuitBreaker.getCurrentTimestamp() - start;
+            if (e != null) {
+                circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(), e);
+            } else if (result.getStatusCode().is5xxServerError()) {
+                circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(),
+                        new HttpServerErrorException(result.getStatusCode()));
+            } else {
+                circuitBreaker.onSuccess(duration, circuitBreaker.getTimestampUnit());
+            }
+        });
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> reject(String message) {
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        return CompletableFuture.completedFuture(ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, retryAfter)
+                .body(new ErrorResponse(status.getReasonPhrase(), message)));
+    }
+}
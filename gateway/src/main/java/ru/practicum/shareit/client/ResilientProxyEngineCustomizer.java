@@ -0,0 +1,68 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+
+// Между замером задержки (внутри) и single-flight (снаружи): объединённые запросы
+// занимают одно место в bulkhead и считаются circuit breaker одним вызовом
+@Component
+@Order(0)
+@ConditionalOnProperty(name = "shareit-server.resilience.enabled", havingValue = "true", matchIfMissing = true)
+public class ResilientProxyEngineCustomizer implements ProxyEngineCustomizer {
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final Duration waitInOpenState;
+
+    // Метрики: resilience4j.circuitbreaker.* и resilience4j.bulkhead.* с тегом name=<клиент>
+    public ResilientProxyEngineCustomizer(ShareItServerProperties properties, MeterRegistry meterRegistry) {
+        ShareItServerProperties.Resilience resilience = properties.getResilience();
+        this.waitInOpenState = resilience.getWaitInOpenState();
+
+        this.circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(resilience.getFailureRateThreshold())
+                .slowCallRateThreshold(resilience.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(resilience.getSlowCallDuration())
+                .slidingWindowSize(resilience.getSlidingWindowSize())
+                .minimumNumberOfCalls(resilience.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(resilience.getWaitInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(resilience.getPermittedCallsInHalfOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build());
+        this.bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(resilience.getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+    }
+
+    @Override
+    public ProxyEngine customize(String baseUrl, ProxyEngine engine) {
+        String name = clientName(baseUrl);
+        return new ResilientProxyEngine(engine,
+                circuitBreakers.circuitBreaker(name),
+                bulkheads.bulkhead(name),
+                waitInOpenState);
+    }
+
+    // http://server:9090/bookings -> bookings
+    private static String clientName(String baseUrl) {
+        String path = UriComponentsBuilder.fromHttpUrl(baseUrl).build().getPath();
+        if (path == null || path.isBlank() || path.equals("/")) {
+            return "root";
+        }
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+}
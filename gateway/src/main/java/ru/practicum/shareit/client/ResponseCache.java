@@ -0,0 +1,72 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Read-through кэш успешных GET ответов shareit-server.
+// Метрики попаданий/промахов: cache.gets, cache.size, cache.evictions с тегом cache=<name>
+public class ResponseCache {
+    private final Cache<ProxyRequest, ResponseEntity<Object>> cache;
+    private final boolean enabled;
+    // Увеличивается при каждой инвалидации. Ответ, запрошенный до инвалидации,
+    // в кэш уже не кладётся, чтобы не вернуть туда устаревшие данные.
+    private final AtomicLong generation = new AtomicLong();
+
+    public ResponseCache(String name, ShareItServerProperties.Cache properties, MeterRegistry meterRegistry) {
+        this(name, properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    ResponseCache(String name, ShareItServerProperties.Cache properties, MeterRegistry meterRegistry, Ticker ticker) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getOrLoad(ProxyRequest request,
+                                                               Supplier<CompletableFuture<ResponseEntity<Object>>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        ResponseEntity<Object> cached = cache.getIfPresent(request);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        long loadGeneration = generation.get();
+        return loader.get().thenApply(response -> {
+            if (response.getStatusCode().is2xxSuccessful() && loadGeneration == generation.get()) {
+                cache.put(request, response);
+                // Инвалидация могла произойти между проверкой и записью
+                if (loadGeneration != generation.get()) {
+                    cache.invalidate(request);
+                }
+            }
+            return response;
+        });
+    }
+
+    public void invalidateIf(Predicate<ProxyRequest> predicate) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(predicate);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+// Блокирующий режим: поток Tomcat ждёт ответа shareit-server,
+// а результат отдаётся уже завершённым CompletableFuture.
+@RequiredArgsConstructor
+public class RestTemplateProxyEngine implements ProxyEngine {
+    private final RestTemplate rest;
+    private final boolean passThrough;
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(ProxyRequest request) {
+        try {
+            if (passThrough) {
+                ResponseEntity<byte[]> response = sendRequest(request, byte[].class);
+                return CompletableFuture.completedFuture(ProxyEngine.preparePassThroughResponse(
+                        response.getStatusCodeValue(), response.getHeaders(), response.getBody()));
+            }
+            return CompletableFuture.completedFuture(
+                    ProxyEngine.prepareGatewayResponse(sendRequest(request, Object.class)));
+        } catch (HttpStatusCodeException e) {
+            if (passThrough) {
+                return CompletableFuture.completedFuture(ProxyEngine.preparePassThroughResponse(
+                        e.getRawStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray()));
+            }
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray()));
+        } catch (RestClientException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <R> ResponseEntity<R> sendRequest(ProxyRequest request, Class<R> responseType) {
+        // Тело запроса и заголовки
+        HttpEntity<Object> requestEntity = new HttpEntity<>(request.getBody(), request.headers());
+
+        if (request.getParameters() != null) {
+            return rest.exchange(request.getPath(), request.getMethod(), requestEntity,
+                    responseType, request.getParameters());
+        }
+        return rest.exchange(request.getPath(), request.getMethod(), requestEntity, responseType);
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@ConditionalOnProperty(name = "shareit-server.engine", havingValue = "rest-template", matchIfMissing = true)
+public class RestTemplateProxyEngineFactory implements ProxyEngineFactory {
+    private final RestTemplateBuilder builder;
+    private final boolean passThrough;
+    private final ObjectProvider<ProxyEngineCustomizer> customizers;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
+
+    public RestTemplateProxyEngineFactory(RestTemplateBuilder builder,
+                                          ShareItServerProperties properties,
+                                          MeterRegistry meterRegistry,
+                                          ObjectProvider<ProxyEngineCustomizer> customizers) {
+        ShareItServerProperties.Pool pool = properties.getPool();
+        this.builder = builder;
+        this.passThrough = properties.isPassThrough();
+        this.customizers = customizers;
+
+        // Один пул keep-alive соединений на все клиенты gateway
+        this.connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(pool.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(pool.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity((int) pool.getValidateAfterInactivity().toMillis());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server")
+                .bindTo(meterRegistry);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) pool.getConnectTimeout().toMillis())
+                .setSocketTimeout((int) pool.getReadTimeout().toMillis())
+                .setConnectionRequestTimeout((int) pool.getPendingAcquireTimeout().toMillis())
+                .build();
+
+        long keepAlive = pool.getKeepAlive().toMillis();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? serverKeepAlive : keepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(pool.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+        this.requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        // Вызов со сроком (подзапрос POST /batch) ждёт соединение и ответ не дольше оставшегося времени
+        requestFactory.setHttpContextFactory((method, uri) -> {
+            Duration remaining = RequestDeadline.remaining();
+            if (remaining == null) {
+                return null;
+            }
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(RequestConfig.copy(requestConfig)
+                    .setConnectTimeout(capMillis(pool.getConnectTimeout(), remaining))
+                    .setSocketTimeout(capMillis(pool.getReadTimeout(), remaining))
+                    .setConnectionRequestTimeout(capMillis(pool.getPendingAcquireTimeout(), remaining))
+                    .build());
+            return context;
+        });
+    }
+
+    @Override
+    public ProxyEngine create(String baseUrl) {
+        ProxyEngine engine = new RestTemplateProxyEngine(builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(baseUrl))
+                .requestFactory(() -> requestFactory)
+                .build(),
+                passThrough
+        );
+        return ProxyEngineCustomizer.applyAll(customizers, baseUrl, engine);
+    }
+
+    private static int capMillis(Duration timeout, Duration remaining) {
+        return (int) (timeout.compareTo(remaining) > 0 ? remaining : timeout).toMillis();
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+}
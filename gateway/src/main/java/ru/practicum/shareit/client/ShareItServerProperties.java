@@ -0,0 +1,73 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit-server")
+@Getter
+@Setter
+public class ShareItServerProperties {
+    // rest-template - блокирующий режим, web-client - неблокирующий
+    private String engine = "rest-template";
+
+    // true - ответы shareit-server передаются клиенту байтами, без разбора в Object
+    private boolean passThrough = true;
+
+    private final Pool pool = new Pool();
+
+    // true - одновременные одинаковые GET запросы разделяют один вызов shareit-server
+    private boolean singleFlight = true;
+
+    private final Cache cache = new Cache();
+
+    private final Resilience resilience = new Resilience();
+
+    // Общий пул соединений gateway -> shareit-server для всех клиентов
+    @Getter
+    @Setter
+    public static class Pool {
+        private int maxConnections = 200;
+        private int maxPerRoute = 200;
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(10);
+        // Сколько держать соединение, если shareit-server не прислал заголовок Keep-Alive
+        private Duration keepAlive = Duration.ofSeconds(30);
+        // Простаивающие дольше этого соединения закрываются фоновым потоком
+        private Duration idleTimeout = Duration.ofSeconds(20);
+        // Соединение, простоявшее дольше этого, проверяется перед выдачей из пула (rest-template)
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+        private Duration evictionInterval = Duration.ofSeconds(10);
+        private int pendingAcquireMaxCount = 1000;
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+    }
+
+    // Кэш GET ответов shareit-server внутри gateway (W-TinyLFU вытеснение Caffeine)
+    @Getter
+    @Setter
+    public static class Cache {
+        private boolean enabled = true;
+        private long maxSize = 10_000;
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+
+    // Circuit breaker и bulkhead - отдельные экземпляры на каждый клиент (users, items, bookings, requests)
+    @Getter
+    @Setter
+    public static class Resilience {
+        private boolean enabled = true;
+        // Процент ошибок (5xx, таймауты) и медленных вызовов, при котором цепь размыкается
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 50;
+        private Duration slowCallDuration = Duration.ofSeconds(2);
+        private int slidingWindowSize = 20;
+        private int minimumNumberOfCalls = 10;
+        // Сколько цепь разомкнута, прежде чем пропустить пробные вызовы
+        private Duration waitInOpenState = Duration.ofSeconds(10);
+        private int permittedCallsInHalfOpenState = 3;
+        // Одновременных вызовов shareit-server на один клиент
+        private int maxConcurrentCalls = 50;
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Одновременные одинаковые GET запросы разделяют один вызов shareit-server.
+// Ключ - ProxyRequest целиком, поэтому запросы разных пользователей (X-Sharer-User-Id) не объединяются
+public class SingleFlightProxyEngine implements ProxyEngine {
+    private final ProxyEngine delegate;
+    private final ConcurrentMap<ProxyRequest, CompletableFuture<ResponseEntity<Object>>> inFlight =
+            new ConcurrentHashMap<>();
+    private final Counter upstreamCalls;
+    private final Counter coalescedCalls;
+
+    public SingleFlightProxyEngine(ProxyEngine delegate, Counter upstreamCalls, Counter coalescedCalls) {
+        this.delegate = delegate;
+        this.upstreamCalls = upstreamCalls;
+        this.coalescedCalls = coalescedCalls;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(ProxyRequest request) {
+        if (request.getMethod() != HttpMethod.GET) {
+            return delegate.exchange(request);
+        }
+
+        // Вызов со сроком (подзапрос POST /batch) может присоединиться к уже идущему, но общий вызов не начинает:
+        // иначе его срок оборвал бы ответ и для остальных ожидающих
+        if (RequestDeadline.remaining() != null) {
+            CompletableFuture<ResponseEntity<Object>> existing = inFlight.get(request);
+            if (existing != null) {
+                coalescedCalls.increment();
+                return existing.copy();
+            }
+            upstreamCalls.increment();
+            return delegate.exchange(request);
+        }
+
+        CompletableFuture<ResponseEntity<Object>> call = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> existing = inFlight.putIfAbsent(request, call);
+        if (existing != null) {
+            coalescedCalls.increment();
+            return existing.copy();
+        }
+
+        upstreamCalls.increment();
+        try {
+            delegate.exchange(request).whenComplete((response, e) -> {
+                // Удаляем до завершения, чтобы пришедшие после ответа запросы получили свежие данные
+                inFlight.remove(request, call);
+                if (e != null) {
+                    call.completeExceptionally(e);
+                } else {
+                    call.complete(response);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(request, call);
+            call.completeExceptionally(e);
+        }
+
+        // Копия, чтобы отмена у одного ожидающего не затронула остальных
+        return call.copy();
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(name = "shareit-server.single-flight", havingValue = "true", matchIfMissing = true)
+public class SingleFlightProxyEngineCustomizer implements ProxyEngineCustomizer {
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlightProxyEngineCustomizer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // gateway.single-flight.calls{result=upstream} - реальные вызовы shareit-server,
+    // {result=coalesced} - запросы, получившие ответ уже идущего вызова
+    @Override
+    public ProxyEngine customize(String baseUrl, ProxyEngine engine) {
+        return new SingleFlightProxyEngine(engine,
+                counter(baseUrl, "upstream"),
+                counter(baseUrl, "coalesced"));
+    }
+
+    private Counter counter(String baseUrl, String result) {
+        return Counter.builder("gateway.single-flight.calls")
+                .tag("client", baseUrl)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
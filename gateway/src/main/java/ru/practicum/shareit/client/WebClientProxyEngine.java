@@ -0,0 +1,57 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Неблокирующий режим: запрос уходит через Reactor Netty,
+// поток Tomcat освобождается до получения ответа shareit-server.
+@RequiredArgsConstructor
+public class WebClientProxyEngine implements ProxyEngine {
+    private final WebClient webClient;
+    private final boolean passThrough;
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(ProxyRequest request) {
+        Map<String, Object> parameters = request.getParameters() != null ? request.getParameters() : Map.of();
+
+        WebClient.RequestBodySpec requestSpec = webClient
+                .method(request.getMethod())
+                .uri(request.getPath(), parameters)
+                .headers(headers -> headers.addAll(request.headers()));
+
+        WebClient.RequestHeadersSpec<?> headersSpec = request.getBody() != null
+                ? requestSpec.bodyValue(request.getBody())
+                : requestSpec;
+
+        if (passThrough) {
+            return withinDeadline(headersSpec
+                    .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                            .defaultIfEmpty(new byte[0])
+                            .map(body -> ProxyEngine.preparePassThroughResponse(
+                                    response.rawStatusCode(), response.headers().asHttpHeaders(), body))));
+        }
+
+        return withinDeadline(headersSpec
+                .exchangeToMono(response -> {
+                    if (response.statusCode().isError()) {
+                        // Как и в RestTemplateProxyEngine, тело ошибки shareit-server отдаётся байтами без разбора
+                        return response.bodyToMono(byte[].class)
+                                .defaultIfEmpty(new byte[0])
+                                .map(body -> ResponseEntity.status(response.rawStatusCode()).<Object>body(body));
+                    }
+                    return response.toEntity(Object.class).map(ProxyEngine::prepareGatewayResponse);
+                }));
+    }
+
+    // Срок вызова отменяет подписку, а с ней и запрос к shareit-server, завершая ответ TimeoutException
+    private static CompletableFuture<ResponseEntity<Object>> withinDeadline(Mono<ResponseEntity<Object>> response) {
+        Duration remaining = RequestDeadline.remaining();
+        return (remaining == null ? response : response.timeout(remaining)).toFuture();
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import javax.annotation.PreDestroy;
+
+@Component
+@ConditionalOnProperty(name = "shareit-server.engine", havingValue = "web-client")
+public class WebClientProxyEngineFactory implements ProxyEngineFactory {
+    private final WebClient.Builder builder;
+    private final ConnectionProvider connectionProvider;
+    private final boolean passThrough;
+    private final ObjectProvider<ProxyEngineCustomizer> customizers;
+
+    public WebClientProxyEngineFactory(WebClient.Builder builder,
+                                       ShareItServerProperties properties,
+                                       ObjectProvider<ProxyEngineCustomizer> customizers) {
+        ShareItServerProperties.Pool pool = properties.getPool();
+        this.passThrough = properties.isPassThrough();
+        this.customizers = customizers;
+
+        // Один ограниченный пул соединений на все клиенты gateway.
+        // Метрики пула публикуются в Micrometer как reactor.netty.connection.provider.*
+        this.connectionProvider = ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections(pool))
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.getPendingAcquireTimeout())
+                .maxIdleTime(pool.getIdleTimeout())
+                .maxLifeTime(pool.getKeepAlive())
+                .evictInBackground(pool.getEvictionInterval())
+                .metrics(true)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(pool.getReadTimeout());
+        this.builder = builder.clientConnector(new ReactorClientHttpConnector(httpClient));
+    }
+
+    @Override
+    public ProxyEngine create(String baseUrl) {
+        ProxyEngine engine = new WebClientProxyEngine(builder.clone()
+                .uriBuilderFactory(new DefaultUriBuilderFactory(baseUrl))
+                .build(),
+                passThrough
+        );
+        return ProxyEngineCustomizer.applyAll(customizers, baseUrl, engine);
+    }
+
+    // В Reactor Netty пул и его лимит - на каждый адрес сервера, общего лимита нет. Все клиенты gateway ходят
+    // на один shareit-server, поэтому действует меньший из max-connections и max-per-route,
+    // как у пула Apache HttpClient с одним маршрутом
+    static int maxConnections(ShareItServerProperties.Pool pool) {
+        return Math.min(pool.getMaxConnections(), pool.getMaxPerRoute());
+    }
+
+    @PreDestroy
+    public void dispose() {
+        connectionProvider.dispose();
+    }
+}
@@ -10,8 +10,11 @@ import ru.practicum.shareit.item.model.dto.ReqCommentDto;
 import ru.practicum.shareit.item.service.ItemClient;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/items")
@@ -23,49 +26,56 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @PathVariable Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> getItemById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                 @PathVariable Long itemId) {
         log.info("Поступил GET запрос в ItemController: метод getItem(), itemId={}", itemId);
         return itemClient.getItemById(userId, itemId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemsByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                    @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                    @Positive @RequestParam(defaultValue = "10") int size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllItemsByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                       @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                                       @Positive @RequestParam(defaultValue = "10") int size) {
         log.info("Поступил GET запрос в ItemController: метод getAllItemsByUser(), userId={}", userId);
         return itemClient.getAllItemsByUser(userId, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                @PathVariable Long itemId,
-                                                @Valid @RequestBody ReqCommentDto text) {
+    public CompletableFuture<ResponseEntity<Object>> createComment(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                   @PathVariable Long itemId,
+                                                                   @Valid @RequestBody ReqCommentDto text) {
         log.info("Поступил POST запрос в ItemController: метод createComment(), userId={}, itemId={}, text={}",
                 userId, itemId, text);
         return itemClient.createComment(userId, itemId, text);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchAvailableItems(@RequestParam String text,
-                                                       @PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                                       @Positive @RequestParam(defaultValue = "10") int size) {
+    public CompletableFuture<ResponseEntity<Object>> searchAvailableItems(@RequestParam String text,
+                                                                          @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                                          @Positive @RequestParam(defaultValue = "10") int size) {
         log.info("Поступил GET запрос в ItemController: " +
                 "метод searchAvailableItems(), text={}", text);
         return itemClient.searchAvailableItems(text, from, size);
     }
 
+    @GetMapping("/suggest")
+    public CompletableFuture<ResponseEntity<Object>> suggestItemNames(@NotBlank @RequestParam String prefix,
+                                                                      @Positive @Max(10) @RequestParam(defaultValue = "10") int size) {
+        log.info("Поступил GET запрос в ItemController: метод suggestItemNames(), prefix={}", prefix);
+        return itemClient.suggestItemNames(prefix, size);
+    }
+
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @Valid @RequestBody ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                @Valid @RequestBody ItemDto itemDto) {
         log.info("Поступил POST запрос в ItemController: метод createItem(), userId={}, ItemDto={} ", userId, itemDto);
         return itemClient.createItem(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @PathVariable Long itemId,
-                                             @RequestBody ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                @PathVariable Long itemId,
+                                                                @RequestBody ItemDto itemDto) {
         log.info("Поступил PATCH запрос в ItemController: метод updateItem(), userId={}, itemId={}, ItemDto={}",
                  userId, itemId, itemDto);
         return itemClient.updateItem(userId, itemId, itemDto);
@@ -1,38 +1,45 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ProxyEngineFactory;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ShareItServerProperties;
 import ru.practicum.shareit.item.model.dto.ItemDto;
 import ru.practicum.shareit.item.model.dto.ReqCommentDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
+    private static final String SEARCH_PATH = "/search";
+    private static final String SUGGEST_PATH = "/suggest";
+
+    // Кэш ответов getItemById (ключ включает X-Sharer-User-Id), searchAvailableItems и suggestItemNames
+    private final ResponseCache cache;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl,
+                      ProxyEngineFactory engineFactory,
+                      ShareItServerProperties properties,
+                      MeterRegistry meterRegistry) {
+        super(engineFactory.create(serverUrl + API_PREFIX));
+        this.cache = new ResponseCache("gateway.items", properties.getCache(), meterRegistry);
     }
 
-    public ResponseEntity<Object> getItemById(long userId, long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> getItemById(long userId, long itemId) {
         String path = "/" + itemId;
 
-        return get(path, userId);
+        return get(cache, path, userId, null);
     }
 
-    public ResponseEntity<Object> getAllItemsByUser(long userId, int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllItemsByUser(long userId, int from, int size) {
         String path = "?from={from}&size={size}";
 
         Map<String, Object> parameters = Map.of(
@@ -42,31 +49,70 @@ public class ItemClient extends BaseClient {
         return get(path, userId, parameters);
     }
 
-    public ResponseEntity<Object> createComment(long userId, long itemId, ReqCommentDto text) {
+    public CompletableFuture<ResponseEntity<Object>> createComment(long userId, long itemId, ReqCommentDto text) {
         String path = "/" + itemId + "/comment";
-        return post(path, userId, text);
+        return post(path, userId, text).thenApply(response -> {
+            if (response.getStatusCode().is2xxSuccessful()) {
+                evictItem(itemId);
+            }
+            return response;
+        });
     }
 
-    public ResponseEntity<Object> searchAvailableItems(String text, int from, int size) {
-        String path = "/search?text={text}&from={from}&size={size}";
+    public CompletableFuture<ResponseEntity<Object>> searchAvailableItems(String text, int from, int size) {
+        String path = SEARCH_PATH + "?text={text}&from={from}&size={size}";
 
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size);
 
-        return get(path, null, parameters);
+        return get(cache, path, null, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> suggestItemNames(String prefix, int size) {
+        String path = SUGGEST_PATH + "?prefix={prefix}&size={size}";
+
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size);
+
+        return get(cache, path, null, parameters);
     }
 
-    public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> createItem(long userId, ItemDto itemDto) {
         String path = "";
-        return post(path, userId, itemDto);
+        return post(path, userId, itemDto).thenApply(response -> {
+            if (response.getStatusCode().is2xxSuccessful()) {
+                evictSearches();
+            }
+            return response;
+        });
     }
 
-    public ResponseEntity<Object> updateItem(long userId, long itemId, ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> updateItem(long userId, long itemId, ItemDto itemDto) {
         String path = "/" + itemId;
-        return patch(path, userId, itemDto);
+        return patch(path, userId, itemDto).thenApply(response -> {
+            if (response.getStatusCode().is2xxSuccessful()) {
+                evictItem(itemId);
+                evictSearches();
+            }
+            return response;
+        });
     }
-}
 
+    // Удаляет из кэша карточку вещи для всех пользователей
+    public void evictItem(long itemId) {
+        String path = "/" + itemId;
+        cache.invalidateIf(request -> request.getPath().equals(path));
+    }
 
+    public void evictAllItems() {
+        cache.invalidateAll();
+    }
+
+    private void evictSearches() {
+        cache.invalidateIf(request -> request.getPath().startsWith(SEARCH_PATH)
+                || request.getPath().startsWith(SUGGEST_PATH));
+    }
+}
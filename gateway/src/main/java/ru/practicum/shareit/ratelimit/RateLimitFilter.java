@@ -0,0 +1,77 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.error.ErrorResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// После фильтра метрик Spring, чтобы отказы попадали в http.server.requests
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "shareit-gateway.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long wait = rateLimiter.tryAcquire(request.getRequestURI(),
+                RateLimiter.clientKey(request.getHeader(USER_ID_HEADER), request.getRemoteAddr()));
+
+        if (wait == RateLimiter.ALLOWED) {
+            filterChain.doFilter(request, response);
+        } else if (wait == RateLimiter.SHED) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1,
+                    "shareit-server перегружен, повторите запрос позже");
+        } else {
+            long retryAfter = Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            log.warn("Превышен лимит запросов к {} для {}", request.getRequestURI(), describeClient(request));
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfter,
+                    "Слишком много запросов, повторите через " + retryAfter + " с");
+        }
+    }
+
+    private static String describeClient(HttpServletRequest request) {
+        String userId = request.getHeader(USER_ID_HEADER);
+        return userId != null ? "пользователя " + userId : "адреса " + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfter, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(status.getReasonPhrase(), message));
+    }
+}
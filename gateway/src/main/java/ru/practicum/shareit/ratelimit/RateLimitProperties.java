@@ -0,0 +1,55 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "shareit-gateway.rate-limit")
+@Validated
+@Getter
+@Setter
+public class RateLimitProperties {
+    private boolean enabled = true;
+
+    // Число ячеек таблицы бакетов (округляется вверх до степени двойки)
+    @Positive
+    private int tableSize = 65_536;
+
+    @Valid
+    private List<Route> routes = new ArrayList<>();
+
+    private final Shedding shedding = new Shedding();
+
+    // Лимит на пару (пользователь, маршрут). Маршрут задаётся префиксом пути
+    @Getter
+    @Setter
+    public static class Route {
+        @NotBlank
+        private String path;
+        // Проверяется при старте: при нуле интервал между запросами бесконечен
+        @Positive
+        private double permitsPerSecond;
+        @PositiveOrZero
+        private int burst;
+    }
+
+    // Сброс нагрузки при росте задержки ответов shareit-server
+    @Getter
+    @Setter
+    public static class Shedding {
+        private boolean enabled = true;
+        private Duration latencyThreshold = Duration.ofSeconds(1);
+        // Вес нового замера в скользящем среднем задержки
+        private double smoothing = 0.1;
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Лимиты запросов на пару (пользователь, маршрут) и вероятностный сброс нагрузки
+@Component
+public class RateLimiter {
+    public static final long ALLOWED = 0;
+    // Признак отказа сбросом нагрузки, а не лимитом пользователя
+    public static final long SHED = -1;
+    // Маршрут занимает младшие 8 бит ключа бакета
+    private static final int ROUTE_BITS = 8;
+    private static final int MAX_ROUTES = 1 << ROUTE_BITS;
+
+    private final TokenBucketTable buckets;
+    private final String[] paths;
+    private final long[] intervals;
+    private final long[] tolerances;
+    private final Counter[] rejected;
+    private final Counter shed;
+    private final UpstreamLatencyTracker latencyTracker;
+    private final boolean sheddingEnabled;
+    private final double latencyThreshold;
+    // Отсчёт времени от старта, чтобы оно было положительным (System.nanoTime() может быть < 0)
+    private final long origin = System.nanoTime() - 1;
+
+    public RateLimiter(RateLimitProperties properties,
+                       UpstreamLatencyTracker latencyTracker,
+                       MeterRegistry meterRegistry) {
+        // Более длинный префикс проверяется раньше: /items/search до /items
+        List<RateLimitProperties.Route> routes = properties.getRoutes().stream()
+                .sorted(Comparator.comparingInt((RateLimitProperties.Route route) -> route.getPath().length())
+                        .reversed())
+                .collect(Collectors.toList());
+        if (routes.size() > MAX_ROUTES) {
+            throw new IllegalArgumentException("Маршрутов с лимитом не может быть больше " + MAX_ROUTES);
+        }
+
+        this.buckets = new TokenBucketTable(properties.getTableSize());
+        this.paths = new String[routes.size()];
+        this.intervals = new long[routes.size()];
+        this.tolerances = new long[routes.size()];
+        this.rejected = new Counter[routes.size()];
+        for (int i = 0; i < routes.size(); i++) {
+            RateLimitProperties.Route route = routes.get(i);
+            paths[i] = route.getPath();
+            intervals[i] = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / route.getPermitsPerSecond()));
+            tolerances[i] = tolerance(route, intervals[i]);
+            rejected[i] = Counter.builder("gateway.rate-limit.rejected")
+                    .tag("route", route.getPath())
+                    .register(meterRegistry);
+        }
+        this.shed = Counter.builder("gateway.load-shedding.rejected").register(meterRegistry);
+        this.latencyTracker = latencyTracker;
+        this.sheddingEnabled = properties.getShedding().isEnabled();
+        this.latencyThreshold = properties.getShedding().getLatencyThreshold().toNanos();
+    }
+
+    // Возвращает ALLOWED, SHED или сколько наносекунд клиенту ждать до следующей попытки.
+    // clientKey - id пользователя (>= 0) или хэш адреса клиента (< 0)
+    public long tryAcquire(String path, long clientKey) {
+        if (shouldShed()) {
+            shed.increment();
+            return SHED;
+        }
+
+        int route = routeOf(path);
+        if (route < 0) {
+            return ALLOWED;
+        }
+
+        long key = (clientKey << ROUTE_BITS) | route;
+        long wait = buckets.tryAcquire(key, System.nanoTime() - origin, intervals[route], tolerances[route]);
+        if (wait > 0) {
+            rejected[route].increment();
+        }
+        return wait;
+    }
+
+    // Пользователи различаются по X-Sharer-User-Id, анонимные запросы - по адресу клиента
+    public static long clientKey(String userId, String remoteAddr) {
+        if (userId != null) {
+            try {
+                long id = Long.parseLong(userId);
+                if (id > 0) {
+                    return id;
+                }
+            } catch (NumberFormatException ignored) {
+                // некорректный заголовок отклонит контроллер, лимит считаем по адресу
+            }
+        }
+        return -1L - (remoteAddr.hashCode() & Integer.MAX_VALUE);
+    }
+
+    // Время следующего запроса не дальше текущего на (burst + 1) интервалов и должно помещаться в long
+    private static long tolerance(RateLimitProperties.Route route, long interval) {
+        long burst = Math.max(route.getBurst(), 1);
+        try {
+            Math.multiplyExact(interval, burst + 1);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(String.format(
+                    "Слишком малый лимит маршрута %s: permits-per-second=%s, burst=%d",
+                    route.getPath(), route.getPermitsPerSecond(), route.getBurst()));
+        }
+        return interval * burst;
+    }
+
+    // Пока средняя задержка выше порога, пропускается доля запросов порог/задержка
+    private boolean shouldShed() {
+        if (!sheddingEnabled) {
+            return false;
+        }
+        double latency = latencyTracker.getAverageNanos();
+        return latency > latencyThreshold
+                && ThreadLocalRandom.current().nextDouble() * latency > latencyThreshold;
+    }
+
+    private int routeOf(String path) {
+        for (int i = 0; i < paths.length; i++) {
+            if (path.startsWith(paths[i])
+                    && (path.length() == paths[i].length() || path.charAt(paths[i].length()) == '/')) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
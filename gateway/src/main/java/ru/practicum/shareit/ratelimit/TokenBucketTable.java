@@ -0,0 +1,95 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Таблица token bucket фиксированного размера без блокировок.
+// Бакет хранится как одно число - теоретическое время прихода следующего запроса (GCRA):
+// запрос пропускается, если это время опережает текущее не больше чем на burst интервалов.
+// Ячейки адресуются открытой адресацией по 64-битному ключу. Ячейка ссылается на бакет, принадлежащий
+// одному ключу: при передаче ячейки другому ключу в неё ставится новый бакет, поэтому поток, успевший
+// прочитать старый, списывает запрос только со старого бакета и не может израсходовать чужой.
+// Объект создаётся только при занятии ячейки ключом, проверка запроса уже занятого ключа без аллокаций
+class TokenBucketTable {
+    private static final int MAX_PROBES = 8;
+
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final int mask;
+
+    TokenBucketTable(int size) {
+        int capacity = Integer.highestOneBit(Math.max(size, MAX_PROBES) - 1) << 1;
+        this.buckets = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    // Возвращает 0, если запрос пропущен, иначе сколько наносекунд ждать до следующей попытки.
+    // tolerance - interval * burst
+    long tryAcquire(long key, long now, long interval, long tolerance) {
+        int start = (int) mix(key) & mask;
+        while (true) {
+            int oldest = start;
+            Bucket oldestBucket = null;
+            for (int i = 0; i < MAX_PROBES; i++) {
+                int slot = (start + i) & mask;
+                Bucket bucket = buckets.get(slot);
+                if (bucket != null && bucket.key == key) {
+                    return acquire(bucket, now, interval, tolerance);
+                }
+                // Бакет, чьё время прихода уже прошло, полон - ячейку можно отдать другому ключу без потерь.
+                // Новый бакет сразу учитывает этот запрос (первый запрос полного бакета всегда проходит),
+                // так что до своего заполнения он не считается свободным
+                if (bucket == null || bucket.arrival.get() <= now) {
+                    if (buckets.compareAndSet(slot, bucket, new Bucket(key, now + interval))) {
+                        return 0;
+                    }
+                    bucket = buckets.get(slot);
+                    if (bucket.key == key) {
+                        return acquire(bucket, now, interval, tolerance);
+                    }
+                }
+                if (oldestBucket == null || bucket.arrival.get() < oldestBucket.arrival.get()) {
+                    oldest = slot;
+                    oldestBucket = bucket;
+                }
+            }
+
+            // Все ячейки цепочки заняты активными ключами: вытесняем самый давний.
+            // Новый ключ получает копию его частично израсходованного бакета, чтобы вытеснение не давало лишний burst
+            Bucket bucket = new Bucket(key, oldestBucket.arrival.get());
+            if (buckets.compareAndSet(oldest, oldestBucket, bucket)) {
+                return acquire(bucket, now, interval, tolerance);
+            }
+            // Ячейку успел занять другой поток - ищем заново
+        }
+    }
+
+    private static long acquire(Bucket bucket, long now, long interval, long tolerance) {
+        while (true) {
+            long arrival = bucket.arrival.get();
+            long next = Math.max(arrival, now) + interval;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.arrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+
+    private static final class Bucket {
+        private final long key;
+        private final AtomicLong arrival;
+
+        private Bucket(long key, long arrival) {
+            this.key = key;
+            this.arrival = new AtomicLong(arrival);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.client.ProxyEngine;
+import ru.practicum.shareit.client.ProxyEngineCustomizer;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Экспоненциальное скользящее среднее задержки ответов shareit-server.
+// Замеряется вокруг реального вызова (самый внутренний декоратор ProxyEngine)
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class UpstreamLatencyTracker implements ProxyEngineCustomizer {
+    private final double smoothing;
+    // Среднее в наносекундах, хранится битами double
+    private final AtomicLong average = new AtomicLong(Double.doubleToRawLongBits(0));
+
+    public UpstreamLatencyTracker(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.smoothing = properties.getShedding().getSmoothing();
+        Gauge.builder("gateway.upstream.latency.average", this, tracker -> tracker.getAverageNanos() / 1_000_000)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ProxyEngine customize(String baseUrl, ProxyEngine engine) {
+        return request -> {
+            long start = System.nanoTime();
+            return engine.exchange(request).whenComplete((response, e) -> record(System.nanoTime() - start));
+        };
+    }
+
+    public double getAverageNanos() {
+        return Double.longBitsToDouble(average.get());
+    }
+
+    void record(long latencyNanos) {
+        while (true) {
+            long bits = average.get();
+            double current = Double.longBitsToDouble(bits);
+            // Начинаем с нуля, чтобы единичный медленный первый вызов (прогрев) не включал сброс нагрузки
+            double updated = current + smoothing * (latencyNanos - current);
+            if (average.compareAndSet(bits, Double.doubleToRawLongBits(updated))) {
+                return;
+            }
+        }
+    }
+}
@@ -10,8 +10,13 @@ import ru.practicum.shareit.user.model.dto.UpdateUserDto;
 import ru.practicum.shareit.user.service.UserClient;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/users")
@@ -22,34 +27,49 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getUserById(@PathVariable Long userId) {
         log.info("Поступил GET запрос в UserController: метод getUserById(), userId={}", userId);
         return userClient.getUserById(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers(@PositiveOrZero @RequestParam(defaultValue = "0") int from,
-                                              @Positive @RequestParam(defaultValue = "10") int size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllUsers(@PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                                 @Positive @RequestParam(defaultValue = "10") int size) {
         log.info("Поступил GET запрос в UserController: метод getAllUsers()");
         return userClient.getAllUsers(from, size);
     }
 
+    @GetMapping(params = "ids")
+    public CompletableFuture<ResponseEntity<Object>> getUsersByIds(@NotEmpty @Size(max = 100) @RequestParam
+                                                                   List<@NotNull @Positive Long> ids) {
+        log.info("Поступил GET запрос в UserController: метод getUsersByIds(), ids={}", ids);
+        return userClient.getUsersByIds(ids);
+    }
+
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody CreateUserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> createUser(@Valid @RequestBody CreateUserDto userDto) {
         log.info("Поступил POST запрос в UserController: метод createUser(), User={}", userDto);
         return userClient.createUser(userDto);
     }
 
+    // Ошибки отдельных строк (занятый email) возвращаются в ответе, остальные пользователи создаются
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<Object>> createUsers(@NotEmpty @Size(max = 1000) @RequestBody
+                                                                 List<@NotNull @Valid CreateUserDto> userDtos) {
+        log.info("Поступил POST запрос в UserController: метод createUsers(), пользователей={}", userDtos.size());
+        return userClient.createUsers(userDtos);
+    }
+
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable Long userId,
-                                             @Valid @RequestBody UpdateUserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> updateUser(@PathVariable Long userId,
+                                                                @Valid @RequestBody UpdateUserDto userDto) {
         log.info("Поступил PATCH запрос в UserController: метод updateUser(), userId={}, User={}", userId, userDto);
         return userClient.updateUser(userId, userDto);
     }
 
     @DeleteMapping("/{userId}")
-    public void deleteUser(@PathVariable Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteUser(@PathVariable Long userId) {
         log.info("Поступил DELETE запрос в UserController: метод deleteUser(), userId={} ", userId);
-        userClient.deleteUserById(userId);
+        return userClient.deleteUserById(userId);
     }
 }
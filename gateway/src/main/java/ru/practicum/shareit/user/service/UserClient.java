@@ -2,37 +2,34 @@ package ru.practicum.shareit.user.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ProxyEngineFactory;
 import ru.practicum.shareit.user.model.dto.CreateUserDto;
 import ru.practicum.shareit.user.model.dto.UpdateUserDto;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                .build()
-        );
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, ProxyEngineFactory engineFactory) {
+        super(engineFactory.create(serverUrl + API_PREFIX));
     }
 
-    public ResponseEntity<Object> getUserById(long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getUserById(long userId) {
         String path = "/" + userId;
         return get(path);
     }
 
 
-    public ResponseEntity<Object> getAllUsers(int from, int size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllUsers(int from, int size) {
         String path = "?from={from}&size={size}";
 
         Map<String, Object> parameters = Map.of(
@@ -43,18 +40,33 @@ public class UserClient extends BaseClient {
         return get(path, null, parameters);
     }
 
-    public ResponseEntity<Object> createUser(CreateUserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> getUsersByIds(List<Long> ids) {
+        String path = "?ids={ids}";
+
+        Map<String, Object> parameters = Map.of(
+                "ids", ids.stream().map(String::valueOf).collect(Collectors.joining(","))
+        );
+
+        return get(path, null, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> createUser(CreateUserDto userDto) {
         String path = "";
         return post(path, userDto);
     }
 
-    public ResponseEntity<Object> updateUser(long userId, UpdateUserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> createUsers(List<CreateUserDto> userDtos) {
+        String path = "/batch";
+        return post(path, userDtos);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> updateUser(long userId, UpdateUserDto userDto) {
         String path = "/" + userId;
         return patch(path, userDto);
     }
 
-    public void deleteUserById(long userId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteUserById(long userId) {
         String path = "/" + userId;
-        delete(path);
+        return delete(path);
     }
 }
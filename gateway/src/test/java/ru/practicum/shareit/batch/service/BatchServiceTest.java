@@ -0,0 +1,163 @@
+package ru.practicum.shareit.batch.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.batch.model.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.model.dto.BatchResponseDto;
+import ru.practicum.shareit.batch.model.dto.SubRequestDto;
+import ru.practicum.shareit.batch.model.dto.SubResponseDto;
+import ru.practicum.shareit.booking.controller.BookingController;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.ratelimit.RateLimitProperties;
+import ru.practicum.shareit.ratelimit.RateLimiter;
+import ru.practicum.shareit.request.controller.ItemRequestController;
+import ru.practicum.shareit.user.controller.UserController;
+
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchServiceTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BatchProperties properties = new BatchProperties();
+    @Mock
+    private UserController userController;
+    @Mock
+    private ItemController itemController;
+    @Mock
+    private BookingController bookingController;
+    @Mock
+    private ItemRequestController itemRequestController;
+    @Mock
+    private RateLimiter rateLimiter;
+    private BatchService batchService;
+
+    @AfterEach
+    void tearDown() {
+        if (batchService != null) {
+            batchService.shutdown();
+        }
+    }
+
+    @Test
+    void execute_ShouldPassDecodedParamsAndEmbedBodiesAsValidJson() throws Exception {
+        createService();
+        when(itemController.searchAvailableItems("дрель bosch", 0, 10))
+                .thenReturn(response(200, MediaType.APPLICATION_JSON, "[{\"id\":1}]"));
+        when(itemController.getItemById(1L, 2L))
+                .thenReturn(response(404, null, "{\"error\":\"Not Found\"}"));
+        when(userController.getUserById(3L))
+                .thenReturn(response(502, MediaType.TEXT_HTML, "<html>Bad Gateway</html>"));
+        when(userController.getUserById(4L))
+                .thenReturn(response(500, null, "upstream failed"));
+
+        JsonNode responses = execute("/items/search?text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C+bosch", "/items/2",
+                "/users/3", "/users/4");
+
+        assertThat(responses.get(0).get("status").asInt(), equalTo(200));
+        assertThat(responses.get(0).get("body").get(0).get("id").asInt(), equalTo(1));
+        assertThat(responses.get(1).get("body").get("error").asText(), equalTo("Not Found"));
+        assertThat(responses.get(2).get("status").asInt(), equalTo(502));
+        assertThat(responses.get(2).get("body").asText(), equalTo("<html>Bad Gateway</html>"));
+        assertThat(responses.get(3).get("body").asText(), equalTo("upstream failed"));
+    }
+
+    @Test
+    void execute_ShouldAnswerBadRequestsWithoutCallingControllers() throws Exception {
+        createService();
+
+        JsonNode responses = execute("/users/abc", "/items/search", "/items/search?text=%zz", "/unknown");
+
+        assertThat(responses.get(0).get("status").asInt(), equalTo(400));
+        assertThat(responses.get(1).get("body").get("message").asText(), equalTo("Отсутствует параметр text"));
+        assertThat(responses.get(2).get("status").asInt(), equalTo(400));
+        assertThat(responses.get(3).get("status").asInt(), equalTo(404));
+    }
+
+    @Test
+    void execute_ShouldMapTimeoutOfServerCallToGatewayTimeout() throws Exception {
+        createService();
+        when(userController.getUserById(1L)).thenReturn(CompletableFuture.failedFuture(
+                new ResourceAccessException("Read timed out", new SocketTimeoutException("Read timed out"))));
+
+        JsonNode responses = execute("/users/1");
+
+        assertThat(responses.get(0).get("status").asInt(), equalTo(504));
+    }
+
+    @Test
+    void execute_ShouldTimeOutAndNeverStartSubRequestsQueuedPastDeadline() throws Exception {
+        properties.setThreads(1);
+        properties.setTimeout(Duration.ofMillis(200));
+        createService();
+        CountDownLatch release = new CountDownLatch(1);
+        when(userController.getUserById(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return response(200, MediaType.APPLICATION_JSON, "{\"id\":1}");
+        });
+
+        long start = System.nanoTime();
+        JsonNode responses = execute("/users/1", "/users/2");
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(2000L));
+        assertThat(responses.get(0).get("status").asInt(), equalTo(504));
+        assertThat(responses.get(1).get("status").asInt(), equalTo(504));
+
+        // Единственный поток освободился, но просроченный подзапрос из очереди не выполняется
+        release.countDown();
+        verify(userController, after(300).never()).getUserById(2L);
+    }
+
+    private void createService() {
+        RateLimitProperties rateLimitProperties = new RateLimitProperties();
+        rateLimitProperties.setEnabled(false);
+        batchService = new BatchService(userController, itemController, bookingController, itemRequestController,
+                properties, rateLimitProperties, rateLimiter, objectMapper, new SimpleMeterRegistry());
+    }
+
+    private JsonNode execute(String... paths) throws Exception {
+        BatchRequestDto batchRequestDto = new BatchRequestDto();
+        batchRequestDto.setRequests(Arrays.stream(paths).map(path -> {
+            SubRequestDto subRequest = new SubRequestDto();
+            subRequest.setId(path);
+            subRequest.setPath(path);
+            return subRequest;
+        }).collect(Collectors.toList()));
+
+        BatchResponseDto response = batchService.execute(1L, 1L, batchRequestDto).get(5, TimeUnit.SECONDS);
+        List<String> ids = response.getResponses().stream().map(SubResponseDto::getId).collect(Collectors.toList());
+        assertThat(ids, contains(paths));
+        // Ответ пакета - корректный JSON
+        return objectMapper.readTree(objectMapper.writeValueAsString(response)).get("responses");
+    }
+
+    private static CompletableFuture<ResponseEntity<Object>> response(int status, MediaType contentType, String body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status);
+        if (contentType != null) {
+            builder.contentType(contentType);
+        }
+        return CompletableFuture.completedFuture(builder.body(body.getBytes(StandardCharsets.UTF_8)));
+    }
+}
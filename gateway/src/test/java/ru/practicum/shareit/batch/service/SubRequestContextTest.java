@@ -0,0 +1,64 @@
+package ru.practicum.shareit.batch.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SubRequestContextTest {
+
+    @Test
+    void param_ShouldDecodePlusAndPercentEncodedCharacters() {
+        SubRequestContext context = context("/items/search?text=%D0%B4%D1%80%D0%B5%D0%BB%D1%8C+bosch%2B&state=ALL");
+
+        assertThat(context.param("text", null), equalTo("дрель bosch+"));
+        assertThat(context.requiredParam("state"), equalTo("ALL"));
+        assertThat(context.param("cursor", "default"), equalTo("default"));
+    }
+
+    @Test
+    void param_ShouldRejectMalformedEncoding() {
+        SubRequestContext context = context("/items/search?text=%zz");
+
+        BadSubRequestException e = assertThrows(BadSubRequestException.class, () -> context.param("text", null));
+        assertThat(e.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
+        assertThat(e.getMessage(), containsString("text=%zz"));
+    }
+
+    @Test
+    void intParam_ShouldParseValueOrReturnDefault() {
+        SubRequestContext context = context("/items?from=20&size=abc");
+
+        assertThat(context.intParam("from", 0), equalTo(20));
+        assertThat(context.intParam("missing", 10), equalTo(10));
+        BadSubRequestException e = assertThrows(BadSubRequestException.class, () -> context.intParam("size", 10));
+        assertThat(e.getStatus(), equalTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void requiredParam_ShouldRejectMissingParam() {
+        BadSubRequestException e = assertThrows(BadSubRequestException.class,
+                () -> context("/items/search").requiredParam("text"));
+        assertThat(e.getMessage(), equalTo("Отсутствует параметр text"));
+    }
+
+    @Test
+    void pathIdAndUserId_ShouldRejectInvalidValues() {
+        SubRequestContext context = new SubRequestContext(null, Map.of("itemId", "1", "bookingId", "x"),
+                UriComponentsBuilder.fromUriString("/items/1").build().getQueryParams());
+
+        assertThat(context.pathId("itemId"), equalTo(1L));
+        assertThrows(BadSubRequestException.class, () -> context.pathId("bookingId"));
+        BadSubRequestException e = assertThrows(BadSubRequestException.class, context::userId);
+        assertThat(e.getMessage(), equalTo("Отсутствует заголовок X-Sharer-User-Id"));
+    }
+
+    private static SubRequestContext context(String path) {
+        return new SubRequestContext(1L, Map.of(), UriComponentsBuilder.fromUriString(path).build().getQueryParams());
+    }
+}
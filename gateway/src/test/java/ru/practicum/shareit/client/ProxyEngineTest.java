@@ -0,0 +1,207 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Оба движка на одной заглушке shareit-server должны отдавать клиенту одинаковые ответы
+class ProxyEngineTest {
+    private static final String ITEM_JSON = "{\"id\":1,\"name\":\"Дрель\"}";
+    private static final String ERROR_JSON = "{\"error\":\"Not Found\",\"description\":\"Вещи с таким id=2 нет\"}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubServer server;
+    private RestTemplateProxyEngineFactory restTemplateFactory;
+    private WebClientProxyEngineFactory webClientFactory;
+    private ProxyEngine restTemplateEngine;
+    private ProxyEngine webClientEngine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new StubServer();
+
+        HttpHeaders itemHeaders = new HttpHeaders();
+        itemHeaders.setContentType(MediaType.APPLICATION_JSON);
+        itemHeaders.set("X-Next-Cursor", "MjAyMy0wMy0wMVQxMjozMDoxNSwx");
+        itemHeaders.set("X-Internal", "server-only");
+        server.respond("GET", "/items/1", 200, itemHeaders, ITEM_JSON);
+
+        HttpHeaders errorHeaders = new HttpHeaders();
+        errorHeaders.setContentType(MediaType.APPLICATION_JSON);
+        server.respond("GET", "/items/2", 404, errorHeaders, ERROR_JSON);
+        server.respond("GET", "/items/3", 500, errorHeaders, "{\"error\":\"Internal Server Error\"}");
+        server.respond("GET", "/items?from=5&size=10", 200, errorHeaders, "[]");
+        server.respond("POST", "/items", 201, errorHeaders, ITEM_JSON);
+        server.respond("DELETE", "/items/1", 204, new HttpHeaders(), null);
+        server.respond("GET", "/items/4", exchange -> {
+            try {
+                Thread.sleep(3000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StubServer.send(exchange, 200, errorHeaders, ITEM_JSON);
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+        if (restTemplateFactory != null) {
+            restTemplateFactory.close();
+        }
+        if (webClientFactory != null) {
+            webClientFactory.dispose();
+        }
+    }
+
+    @Test
+    void exchange_ShouldReturnSameSuccessfulResponseFromBothEngines() throws IOException {
+        createEngines(false);
+        ProxyRequest request = new ProxyRequest(HttpMethod.GET, "/1", 7L, null, null);
+
+        ResponseEntity<Object> restTemplateResponse = restTemplateEngine.exchange(request).join();
+        ResponseEntity<Object> webClientResponse = webClientEngine.exchange(request).join();
+
+        for (ResponseEntity<Object> response : new ResponseEntity[]{restTemplateResponse, webClientResponse}) {
+            assertThat(response.getStatusCodeValue(), equalTo(200));
+            assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+            assertThat(response.getHeaders().getFirst("X-Next-Cursor"), equalTo("MjAyMy0wMy0wMVQxMjozMDoxNSwx"));
+            assertThat(json(response.getBody()), equalTo(objectMapper.readTree(ITEM_JSON)));
+        }
+    }
+
+    @Test
+    void exchange_ShouldReturnSameErrorResponseFromBothEngines() throws IOException {
+        createEngines(false);
+
+        for (String path : new String[]{"/2", "/3"}) {
+            ProxyRequest request = new ProxyRequest(HttpMethod.GET, path, 7L, null, null);
+            ResponseEntity<Object> restTemplateResponse = restTemplateEngine.exchange(request).join();
+            ResponseEntity<Object> webClientResponse = webClientEngine.exchange(request).join();
+
+            assertThat(webClientResponse.getStatusCode(), equalTo(restTemplateResponse.getStatusCode()));
+            assertThat(webClientResponse.getBody(), instanceOf(byte[].class));
+            assertThat(json(webClientResponse.getBody()), equalTo(json(restTemplateResponse.getBody())));
+        }
+        assertThat(json(webClientEngine.exchange(new ProxyRequest(HttpMethod.GET, "/2", 7L, null, null))
+                .join().getBody()), equalTo(objectMapper.readTree(ERROR_JSON)));
+    }
+
+    @Test
+    void exchange_ShouldSendSameRequestFromBothEngines() {
+        createEngines(false);
+        ProxyRequest request = new ProxyRequest(HttpMethod.GET, "?from={from}&size={size}", 7L,
+                Map.of("from", 5, "size", 10), null);
+        ProxyRequest post = new ProxyRequest(HttpMethod.POST, "", 7L, null, Map.of("name", "Дрель"));
+
+        assertThat(restTemplateEngine.exchange(request).join().getStatusCodeValue(), equalTo(200));
+        assertThat(webClientEngine.exchange(request).join().getStatusCodeValue(), equalTo(200));
+        assertThat(restTemplateEngine.exchange(post).join().getStatusCodeValue(), equalTo(201));
+        assertThat(webClientEngine.exchange(post).join().getStatusCodeValue(), equalTo(201));
+
+        assertThat(server.requests(), hasSize(4));
+        for (StubServer.Recorded recorded : server.requests()) {
+            assertThat(recorded.getHeaders().getFirst("X-Sharer-User-Id"), equalTo("7"));
+            assertThat(recorded.getHeaders().getFirst(HttpHeaders.ACCEPT), equalTo(MediaType.APPLICATION_JSON_VALUE));
+        }
+        assertThat(server.requests().get(0).getUri(), equalTo("/items?from=5&size=10"));
+        assertThat(server.requests().get(1).getUri(), equalTo("/items?from=5&size=10"));
+        assertThat(server.requests().get(2).getBody(), equalTo("{\"name\":\"Дрель\"}"));
+        assertThat(server.requests().get(3).getBody(), equalTo("{\"name\":\"Дрель\"}"));
+    }
+
+    @Test
+    void exchange_ShouldPassThroughServerBytesAndSelectedHeaders() {
+        createEngines(true);
+        ProxyRequest request = new ProxyRequest(HttpMethod.GET, "/1", 7L, null, null);
+
+        for (ProxyEngine engine : new ProxyEngine[]{restTemplateEngine, webClientEngine}) {
+            ResponseEntity<Object> response = engine.exchange(request).join();
+
+            assertThat(response.getStatusCodeValue(), equalTo(200));
+            assertThat(response.getBody(), equalTo(ITEM_JSON.getBytes(StandardCharsets.UTF_8)));
+            assertThat(response.getHeaders().keySet(), containsInAnyOrder(HttpHeaders.CONTENT_TYPE, "X-Next-Cursor"));
+            assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+            assertThat(response.getHeaders().getFirst("X-Next-Cursor"), equalTo("MjAyMy0wMy0wMVQxMjozMDoxNSwx"));
+        }
+    }
+
+    @Test
+    void exchange_ShouldPassThroughErrorAndEmptyResponses() {
+        createEngines(true);
+        ProxyRequest notFound = new ProxyRequest(HttpMethod.GET, "/2", 7L, null, null);
+        ProxyRequest delete = new ProxyRequest(HttpMethod.DELETE, "/1", 7L, null, null);
+
+        for (ProxyEngine engine : new ProxyEngine[]{restTemplateEngine, webClientEngine}) {
+            ResponseEntity<Object> response = engine.exchange(notFound).join();
+            assertThat(response.getStatusCodeValue(), equalTo(404));
+            assertThat(response.getBody(), equalTo(ERROR_JSON.getBytes(StandardCharsets.UTF_8)));
+            assertThat(response.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON));
+
+            ResponseEntity<Object> deleted = engine.exchange(delete).join();
+            assertThat(deleted.getStatusCodeValue(), equalTo(204));
+            assertThat(deleted.getBody(), equalTo(new byte[0]));
+            assertThat(deleted.getHeaders().isEmpty(), is(true));
+        }
+    }
+
+    @Test
+    void exchange_ShouldAbortCallAtRequestDeadline() {
+        createEngines(false);
+        ProxyRequest request = new ProxyRequest(HttpMethod.GET, "/4", 7L, null, null);
+
+        for (ProxyEngine engine : new ProxyEngine[]{restTemplateEngine, webClientEngine}) {
+            long start = System.nanoTime();
+            CompletableFuture<ResponseEntity<Object>> response = RequestDeadline.callWithin(
+                    start + TimeUnit.MILLISECONDS.toNanos(200), () -> engine.exchange(request));
+
+            CompletionException e = assertThrows(CompletionException.class, response::join);
+            assertThat(e.getCause(), anyOf(instanceOf(TimeoutException.class),
+                    hasProperty("cause", instanceOf(SocketTimeoutException.class))));
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(2000L));
+        }
+    }
+
+    private void createEngines(boolean passThrough) {
+        ShareItServerProperties properties = new ShareItServerProperties();
+        properties.setPassThrough(passThrough);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+        restTemplateFactory = new RestTemplateProxyEngineFactory(new RestTemplateBuilder(), properties,
+                new SimpleMeterRegistry(), beanFactory.getBeanProvider(ProxyEngineCustomizer.class));
+        webClientFactory = new WebClientProxyEngineFactory(WebClient.builder(), properties,
+                beanFactory.getBeanProvider(ProxyEngineCustomizer.class));
+        restTemplateEngine = restTemplateFactory.create(server.url("/items"));
+        webClientEngine = webClientFactory.create(server.url("/items"));
+    }
+
+    private JsonNode json(Object body) throws IOException {
+        if (body instanceof byte[]) {
+            return objectMapper.readTree((byte[]) body);
+        }
+        return objectMapper.valueToTree(body);
+    }
+}
@@ -0,0 +1,205 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.error.ErrorResponse;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResilientProxyEngineTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ShareItServerProperties properties = new ShareItServerProperties();
+    private final ProxyRequest request = new ProxyRequest(HttpMethod.GET, "/1", 1L, null, null);
+    private final AtomicInteger downstreamCalls = new AtomicInteger();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    // Ответы заглушки shareit-server по порядку; когда очередь пуста - 200
+    private final Deque<Supplier<CompletableFuture<ResponseEntity<Object>>>> responses = new ArrayDeque<>();
+    private ProxyEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        ShareItServerProperties.Resilience resilience = properties.getResilience();
+        resilience.setSlidingWindowSize(4);
+        resilience.setMinimumNumberOfCalls(4);
+        resilience.setFailureRateThreshold(50);
+        resilience.setSlowCallRateThreshold(50);
+        resilience.setSlowCallDuration(Duration.ofMillis(50));
+        resilience.setWaitInOpenState(Duration.ofMillis(200));
+        resilience.setPermittedCallsInHalfOpenState(2);
+        resilience.setMaxConcurrentCalls(2);
+
+        engine = new ResilientProxyEngineCustomizer(properties, meterRegistry)
+                .customize("http://localhost:9090/items", request -> {
+                    downstreamCalls.incrementAndGet();
+                    Supplier<CompletableFuture<ResponseEntity<Object>>> response;
+                    synchronized (responses) {
+                        response = responses.poll();
+                    }
+                    return response != null ? response.get() : ok();
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void exchange_ShouldOpenCircuitAfterServerErrorsAndFailFast() {
+        for (int i = 0; i < 4; i++) {
+            respondWith(HttpStatus.INTERNAL_SERVER_ERROR);
+            assertThat(exchange().getStatusCode(), equalTo(HttpStatus.INTERNAL_SERVER_ERROR));
+        }
+
+        ResponseEntity<Object> rejected = exchange();
+
+        assertThat(rejected.getStatusCode(), equalTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER), equalTo("1"));
+        assertThat(((ErrorResponse) rejected.getBody()).getMessage(), equalTo("Сервис items временно недоступен"));
+        assertThat(downstreamCalls.get(), equalTo(4));
+        assertThat(state("open"), equalTo(1.0));
+    }
+
+    @Test
+    void exchange_ShouldCountTransportErrorsAndSlowCallsButNotClientErrors() {
+        for (int i = 0; i < 4; i++) {
+            respondWith(HttpStatus.NOT_FOUND);
+            exchange();
+        }
+        assertThat(state("closed"), equalTo(1.0));
+
+        for (int i = 0; i < 2; i++) {
+            synchronized (responses) {
+                responses.add(() -> CompletableFuture.failedFuture(new ResourceAccessException("Connection refused")));
+            }
+            CompletionException e = assertThrows(CompletionException.class, this::exchange);
+            assertThat(e.getCause(), instanceOf(ResourceAccessException.class));
+        }
+        for (int i = 0; i < 2; i++) {
+            synchronized (responses) {
+                responses.add(() -> delayed(ResponseEntity.ok("slow"), 80));
+            }
+            exchange();
+        }
+        assertThat(state("open"), equalTo(1.0));
+    }
+
+    @Test
+    void exchange_ShouldProbeInHalfOpenStateAndCloseAfterSuccessfulProbes() throws InterruptedException {
+        openCircuit();
+        assertThat(exchange().getStatusCode(), equalTo(HttpStatus.SERVICE_UNAVAILABLE));
+
+        awaitState("half_open");
+        assertThat(exchange().getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(exchange().getStatusCode(), equalTo(HttpStatus.OK));
+
+        assertThat(state("closed"), equalTo(1.0));
+        assertThat(exchange().getStatusCode(), equalTo(HttpStatus.OK));
+    }
+
+    @Test
+    void exchange_ShouldReopenCircuitWhenProbesFail() throws InterruptedException {
+        openCircuit();
+        awaitState("half_open");
+
+        respondWith(HttpStatus.BAD_GATEWAY);
+        respondWith(HttpStatus.BAD_GATEWAY);
+        exchange();
+        exchange();
+
+        assertThat(state("open"), equalTo(1.0));
+        assertThat(exchange().getStatusCode(), equalTo(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    @Test
+    void exchange_ShouldRejectCallsOverBulkheadLimitAndAdmitAfterRelease() {
+        CompletableFuture<ResponseEntity<Object>> first = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> second = new CompletableFuture<>();
+        synchronized (responses) {
+            responses.add(() -> first);
+            responses.add(() -> second);
+        }
+        CompletableFuture<ResponseEntity<Object>> firstCall = engine.exchange(request);
+        engine.exchange(request);
+
+        ResponseEntity<Object> rejected = exchange();
+
+        assertThat(rejected.getStatusCode(), equalTo(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(((ErrorResponse) rejected.getBody()).getMessage(),
+                equalTo("Слишком много одновременных запросов к сервису items"));
+        assertThat(downstreamCalls.get(), equalTo(2));
+        assertThat(meterRegistry.get("resilience4j.bulkhead.available.concurrent.calls").tag("name", "items")
+                .gauge().value(), equalTo(0.0));
+
+        first.complete(ResponseEntity.ok("item"));
+        assertThat(firstCall.join().getBody(), equalTo("item"));
+        assertThat(exchange().getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(downstreamCalls.get(), equalTo(3));
+        // Отказ bulkhead не считается ошибкой shareit-server
+        assertThat(state("closed"), equalTo(1.0));
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            respondWith(HttpStatus.INTERNAL_SERVER_ERROR);
+            exchange();
+        }
+        assertThat(state("open"), equalTo(1.0));
+    }
+
+    private void awaitState(String state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (state(state) != 1.0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(state(state), equalTo(1.0));
+    }
+
+    private ResponseEntity<Object> exchange() {
+        return engine.exchange(request).join();
+    }
+
+    private void respondWith(HttpStatus status) {
+        synchronized (responses) {
+            responses.add(() -> CompletableFuture.completedFuture(ResponseEntity.status(status).body(new byte[0])));
+        }
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> delayed(ResponseEntity<Object> response, long millis) {
+        CompletableFuture<ResponseEntity<Object>> future = new CompletableFuture<>();
+        scheduler.schedule(() -> future.complete(response), millis, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    private static CompletableFuture<ResponseEntity<Object>> ok() {
+        return CompletableFuture.completedFuture(ResponseEntity.ok("item"));
+    }
+
+    private double state(String state) {
+        return meterRegistry.get("resilience4j.circuitbreaker.state")
+                .tag("name", "items")
+                .tag("state", state)
+                .gauge().value();
+    }
+}
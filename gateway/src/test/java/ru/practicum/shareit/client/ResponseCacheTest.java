@@ -0,0 +1,89 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class ResponseCacheTest {
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final ProxyRequest request = new ProxyRequest(HttpMethod.GET, "/1", 1L, null, null);
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ShareItServerProperties.Cache properties = new ShareItServerProperties.Cache();
+        properties.setTtl(Duration.ofSeconds(30));
+        cache = new ResponseCache("test", properties, new SimpleMeterRegistry(), nanos::get);
+    }
+
+    @Test
+    void getOrLoad_ShouldReturnCachedResponseUntilTtlExpires() {
+        assertThat(load(request).getBody(), equalTo(1));
+        nanos.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertThat(load(request).getBody(), equalTo(1));
+
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertThat(load(request).getBody(), equalTo(2));
+    }
+
+    @Test
+    void getOrLoad_ShouldKeepSeparateEntriesForEachUser() {
+        ProxyRequest otherUser = new ProxyRequest(HttpMethod.GET, "/1", 2L, null, null);
+
+        assertThat(load(request).getBody(), equalTo(1));
+        assertThat(load(otherUser).getBody(), equalTo(2));
+        assertThat(load(request).getBody(), equalTo(1));
+        assertThat(load(otherUser).getBody(), equalTo(2));
+    }
+
+    @Test
+    void getOrLoad_ShouldNotCacheErrorResponses() {
+        cache.getOrLoad(request, () -> CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(loads.incrementAndGet()))).join();
+
+        assertThat(load(request).getBody(), equalTo(2));
+        assertThat(load(request).getBody(), equalTo(2));
+    }
+
+    @Test
+    void invalidateIf_ShouldRemoveOnlyMatchingEntries() {
+        ProxyRequest otherItem = new ProxyRequest(HttpMethod.GET, "/2", 1L, null, null);
+        load(request);
+        load(otherItem);
+
+        cache.invalidateIf(cached -> cached.getPath().equals("/1"));
+
+        assertThat(load(request).getBody(), equalTo(3));
+        assertThat(load(otherItem).getBody(), equalTo(2));
+    }
+
+    @Test
+    void getOrLoad_ShouldNotCacheResponseLoadedBeforeInvalidation() {
+        CompletableFuture<ResponseEntity<Object>> slowLoad = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> response = cache.getOrLoad(request, () -> slowLoad);
+
+        // Изменение вещи закоммичено, пока ответ со старыми данными ещё шёл от shareit-server
+        cache.invalidateIf(cached -> true);
+        slowLoad.complete(ResponseEntity.ok("stale"));
+
+        assertThat(response.join().getBody(), equalTo("stale"));
+        assertThat(load(request).getBody(), equalTo(1));
+    }
+
+    private ResponseEntity<Object> load(ProxyRequest request) {
+        return cache.getOrLoad(request,
+                () -> CompletableFuture.completedFuture(ResponseEntity.ok(loads.incrementAndGet()))).join();
+    }
+}
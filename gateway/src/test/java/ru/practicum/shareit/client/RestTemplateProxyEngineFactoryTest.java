@@ -0,0 +1,91 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class RestTemplateProxyEngineFactoryTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ShareItServerProperties properties = new ShareItServerProperties();
+    private StubServer server;
+    private RestTemplateProxyEngineFactory factory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new StubServer();
+        server.respond("GET", "/items/1", 200, new HttpHeaders(), "{}");
+
+        ShareItServerProperties.Pool pool = properties.getPool();
+        pool.setMaxConnections(30);
+        pool.setMaxPerRoute(20);
+        pool.setIdleTimeout(Duration.ofMillis(300));
+        pool.setValidateAfterInactivity(Duration.ofMillis(1500));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.close();
+        if (factory != null) {
+            factory.close();
+        }
+    }
+
+    @Test
+    void create_ShouldConfigurePoolAndExportMetrics() {
+        factory = createFactory();
+        PoolingHttpClientConnectionManager connectionManager = connectionManager();
+
+        assertThat(connectionManager.getMaxTotal(), equalTo(30));
+        assertThat(connectionManager.getDefaultMaxPerRoute(), equalTo(20));
+        // Проверка перед выдачей из пула не зависит от срока простоя
+        assertThat(connectionManager.getValidateAfterInactivity(), equalTo(1500));
+        assertThat(gauge("httpcomponents.httpclient.pool.total.max"), equalTo(30.0));
+        assertThat(gauge("httpcomponents.httpclient.pool.route.max.default"), equalTo(20.0));
+    }
+
+    @Test
+    void exchange_ShouldReuseConnectionAndEvictItAfterIdleTimeout() throws InterruptedException {
+        factory = createFactory();
+        ProxyEngine engine = factory.create(server.url("/items"));
+        ProxyRequest request = new ProxyRequest(HttpMethod.GET, "/1", 1L, null, null);
+
+        engine.exchange(request).join();
+        engine.exchange(request).join();
+
+        assertThat(connectionManager().getTotalStats().getAvailable(), equalTo(1));
+        assertThat(connectionManager().getTotalStats().getLeased(), equalTo(0));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (connectionManager().getTotalStats().getAvailable() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(connectionManager().getTotalStats().getAvailable(), equalTo(0));
+    }
+
+    private RestTemplateProxyEngineFactory createFactory() {
+        return new RestTemplateProxyEngineFactory(new RestTemplateBuilder(), properties, meterRegistry,
+                new DefaultListableBeanFactory().getBeanProvider(ProxyEngineCustomizer.class));
+    }
+
+    private PoolingHttpClientConnectionManager connectionManager() {
+        return (PoolingHttpClientConnectionManager) ReflectionTestUtils.getField(factory, "connectionManager");
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+}
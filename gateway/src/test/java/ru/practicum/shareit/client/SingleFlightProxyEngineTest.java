@@ -0,0 +1,200 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightProxyEngineTest {
+    private static final int THREADS = 32;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Counter upstreamCalls = meterRegistry.counter("upstream");
+    private final Counter coalescedCalls = meterRegistry.counter("coalesced");
+    private final ProxyRequest request = new ProxyRequest(HttpMethod.GET, "/1", 1L, null, null);
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    private final AtomicInteger delegateCalls = new AtomicInteger();
+    // Ответы shareit-server, которые тест завершает сам
+    private final List<CompletableFuture<ResponseEntity<Object>>> pending = new ArrayList<>();
+    private SingleFlightProxyEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new SingleFlightProxyEngine(request -> {
+            delegateCalls.incrementAndGet();
+            CompletableFuture<ResponseEntity<Object>> response = new CompletableFuture<>();
+            synchronized (pending) {
+                pending.add(response);
+            }
+            return response;
+        }, upstreamCalls, coalescedCalls);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void exchange_ShouldMakeOneUpstreamCallForConcurrentIdenticalGets() throws Exception {
+        List<CompletableFuture<ResponseEntity<Object>>> responses = exchangeConcurrently(request, THREADS);
+
+        assertThat(delegateCalls.get(), equalTo(1));
+        pending.get(0).complete(ResponseEntity.ok("item"));
+
+        for (CompletableFuture<ResponseEntity<Object>> response : responses) {
+            assertThat(response.get(1, TimeUnit.SECONDS).getBody(), equalTo("item"));
+        }
+        assertThat(upstreamCalls.count(), equalTo(1.0));
+        assertThat(coalescedCalls.count(), equalTo(THREADS - 1.0));
+    }
+
+    @Test
+    void exchange_ShouldPassFailureToEveryWaiterAndClearInFlightCall() throws Exception {
+        List<CompletableFuture<ResponseEntity<Object>>> responses = exchangeConcurrently(request, THREADS);
+
+        pending.get(0).completeExceptionally(new IllegalStateException("shareit-server недоступен"));
+
+        for (CompletableFuture<ResponseEntity<Object>> response : responses) {
+            CompletionException e = assertThrows(CompletionException.class, response::join);
+            assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+        }
+
+        // Следующий запрос не получает закэшированную ошибку, а идёт в shareit-server заново
+        CompletableFuture<ResponseEntity<Object>> retry = engine.exchange(request);
+        assertThat(delegateCalls.get(), equalTo(2));
+        pending.get(1).complete(ResponseEntity.ok("item"));
+        assertThat(retry.join().getBody(), equalTo("item"));
+    }
+
+    @Test
+    void exchange_ShouldClearInFlightCallWhenDelegateThrows() {
+        SingleFlightProxyEngine throwing = new SingleFlightProxyEngine(request -> {
+            delegateCalls.incrementAndGet();
+            throw new IllegalStateException("Некорректный адрес");
+        }, upstreamCalls, coalescedCalls);
+
+        assertThrows(CompletionException.class, () -> throwing.exchange(request).join());
+        assertThrows(CompletionException.class, () -> throwing.exchange(request).join());
+        assertThat(delegateCalls.get(), equalTo(2));
+    }
+
+    @Test
+    void exchange_ShouldNotCoalesceRequestsOfDifferentUsersOrWrites() {
+        engine.exchange(request);
+        engine.exchange(new ProxyRequest(HttpMethod.GET, "/1", 2L, null, null));
+        engine.exchange(new ProxyRequest(HttpMethod.GET, "/1", null, null, null));
+        engine.exchange(new ProxyRequest(HttpMethod.PATCH, "/1", 1L, null, null));
+        engine.exchange(new ProxyRequest(HttpMethod.PATCH, "/1", 1L, null, null));
+
+        assertThat(delegateCalls.get(), equalTo(5));
+        assertThat(coalescedCalls.count(), equalTo(0.0));
+    }
+
+    @Test
+    void exchange_ShouldNotCancelOtherWaitersWhenOneCancels() {
+        CompletableFuture<ResponseEntity<Object>> cancelled = engine.exchange(request);
+        CompletableFuture<ResponseEntity<Object>> waiting = engine.exchange(request);
+
+        cancelled.cancel(true);
+        pending.get(0).complete(ResponseEntity.ok("item"));
+
+        assertThat(waiting.join().getBody(), equalTo("item"));
+    }
+
+    @Test
+    void exchange_ShouldNotShareCallStartedWithDeadline() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        CompletableFuture<ResponseEntity<Object>> bounded = RequestDeadline.callWithin(deadline,
+                () -> engine.exchange(request));
+        CompletableFuture<ResponseEntity<Object>> unbounded = engine.exchange(request);
+        // Вызов со сроком присоединяется к уже идущему общему вызову
+        CompletableFuture<ResponseEntity<Object>> joined = RequestDeadline.callWithin(deadline,
+                () -> engine.exchange(request));
+
+        assertThat(delegateCalls.get(), equalTo(2));
+        pending.get(0).completeExceptionally(new IllegalStateException("Срок вызова истёк"));
+        pending.get(1).complete(ResponseEntity.ok("item"));
+
+        assertThrows(CompletionException.class, bounded::join);
+        assertThat(unbounded.join().getBody(), equalTo("item"));
+        assertThat(joined.join().getBody(), equalTo("item"));
+    }
+
+    // Нагрузочный сценарий: потоки повторяют один и тот же GET, пока shareit-server отвечает 20 мс.
+    // Почти все запросы должны получить ответ уже идущего вызова
+    @Test
+    void exchange_ShouldReduceUpstreamCallsUnderThunderingHerd() throws Exception {
+        ScheduledExecutorService server = Executors.newSingleThreadScheduledExecutor();
+        AtomicInteger serverCalls = new AtomicInteger();
+        SingleFlightProxyEngine herdEngine = new SingleFlightProxyEngine(request -> {
+            serverCalls.incrementAndGet();
+            CompletableFuture<ResponseEntity<Object>> response = new CompletableFuture<>();
+            server.schedule(() -> response.complete(ResponseEntity.ok("item")), 20, TimeUnit.MILLISECONDS);
+            return response;
+        }, upstreamCalls, coalescedCalls);
+
+        int requestsPerThread = 10;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            threads.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < requestsPerThread; j++) {
+                    assertThat(herdEngine.exchange(request).join().getBody(), equalTo("item"));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> thread : threads) {
+            thread.get(10, TimeUnit.SECONDS);
+        }
+        server.shutdownNow();
+
+        int total = THREADS * requestsPerThread;
+        assertThat(upstreamCalls.count() + coalescedCalls.count(), equalTo((double) total));
+        assertThat(upstreamCalls.count(), equalTo((double) serverCalls.get()));
+        assertThat(serverCalls.get(), lessThan(total / 4));
+    }
+
+    // Все вызовы exchange выполняются до ответа shareit-server, поэтому попадают в один вызов
+    private List<CompletableFuture<ResponseEntity<Object>>> exchangeConcurrently(ProxyRequest request, int count)
+            throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CompletableFuture<ResponseEntity<Object>>>> calls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            calls.add(executor.submit(() -> {
+                start.await();
+                return engine.exchange(request);
+            }));
+        }
+        start.countDown();
+
+        List<CompletableFuture<ResponseEntity<Object>>> responses = new ArrayList<>();
+        for (Future<CompletableFuture<ResponseEntity<Object>>> call : calls) {
+            responses.add(call.get(5, TimeUnit.SECONDS));
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Заглушка shareit-server для тестов движков gateway: отвечает заданными ответами
+// и запоминает полученные запросы
+class StubServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Handler> handlers = new ConcurrentHashMap<>();
+    private final List<Recorded> requests = new CopyOnWriteArrayList<>();
+
+    StubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    // uri - путь с query, как его получает сервер
+    void respond(String method, String uri, int status, HttpHeaders headers, String body) {
+        handlers.put(method + " " + uri, exchange -> send(exchange, status, headers, body));
+    }
+
+    void respond(String method, String uri, Handler handler) {
+        handlers.put(method + " " + uri, handler);
+    }
+
+    List<Recorded> requests() {
+        return requests;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    static void send(HttpExchange exchange, int status, HttpHeaders headers, String body) throws IOException {
+        headers.forEach((name, values) -> exchange.getResponseHeaders().put(name, values));
+        byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String uri = exchange.getRequestURI().toString();
+        HttpHeaders headers = new HttpHeaders();
+        exchange.getRequestHeaders().forEach(headers::put);
+        requests.add(new Recorded(exchange.getRequestMethod(), uri, headers,
+                new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+
+        Handler handler = handlers.get(exchange.getRequestMethod() + " " + uri);
+        if (handler == null) {
+            send(exchange, 404, new HttpHeaders(), null);
+        } else {
+            handler.handle(exchange);
+        }
+    }
+
+    interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    @RequiredArgsConstructor
+    @Getter
+    static class Recorded {
+        private final String method;
+        private final String uri;
+        private final HttpHeaders headers;
+        private final String body;
+    }
+}
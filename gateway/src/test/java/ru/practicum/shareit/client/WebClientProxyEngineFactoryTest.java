@@ -0,0 +1,20 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class WebClientProxyEngineFactoryTest {
+    private final ShareItServerProperties.Pool pool = new ShareItServerProperties.Pool();
+
+    @Test
+    void maxConnections_ShouldApplyLowerOfTotalAndPerRouteLimits() {
+        pool.setMaxConnections(30);
+        pool.setMaxPerRoute(50);
+        assertThat(WebClientProxyEngineFactory.maxConnections(pool), equalTo(30));
+
+        pool.setMaxConnections(100);
+        assertThat(WebClientProxyEngineFactory.maxConnections(pool), equalTo(50));
+    }
+}
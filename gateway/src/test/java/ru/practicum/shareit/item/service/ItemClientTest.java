@@ -0,0 +1,94 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.ProxyRequest;
+import ru.practicum.shareit.client.ShareItServerProperties;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.item.model.dto.ReqCommentDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+
+class ItemClientTest {
+    private final List<ProxyRequest> upstream = new ArrayList<>();
+    private HttpStatus writeStatus = HttpStatus.OK;
+    private ItemClient itemClient;
+
+    @BeforeEach
+    void setUp() {
+        itemClient = new ItemClient("http://localhost:9090", baseUrl -> request -> {
+            upstream.add(request);
+            HttpStatus status = request.getMethod() == HttpMethod.GET ? HttpStatus.OK : writeStatus;
+            return CompletableFuture.completedFuture(ResponseEntity.status(status).body(new byte[0]));
+        }, new ShareItServerProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getItemById_ShouldCacheItemForEachUser() {
+        itemClient.getItemById(1L, 10L).join();
+        itemClient.getItemById(1L, 10L).join();
+        itemClient.getItemById(2L, 10L).join();
+        itemClient.getItemById(2L, 10L).join();
+
+        assertThat(upstream, hasSize(2));
+    }
+
+    @Test
+    void updateItem_ShouldEvictItemForAllUsersAndSearches() {
+        readAll();
+        itemClient.updateItem(1L, 10L, new ItemDto()).join();
+        upstream.clear();
+
+        readAll();
+        // Карточка вещи 10 для обоих пользователей, поиск и подсказки; вещь 11 остаётся в кэше
+        assertThat(upstream, hasSize(4));
+    }
+
+    @Test
+    void createItem_ShouldEvictSearchesButKeepItemDetails() {
+        readAll();
+        itemClient.createItem(1L, new ItemDto()).join();
+        upstream.clear();
+
+        readAll();
+        assertThat(upstream, hasSize(2));
+    }
+
+    @Test
+    void createComment_ShouldEvictOnlyCommentedItem() {
+        readAll();
+        itemClient.createComment(2L, 11L, new ReqCommentDto()).join();
+        upstream.clear();
+
+        readAll();
+        assertThat(upstream, hasSize(1));
+    }
+
+    @Test
+    void updateItem_ShouldKeepCacheWhenServerRejectsUpdate() {
+        readAll();
+        writeStatus = HttpStatus.NOT_FOUND;
+        itemClient.updateItem(1L, 10L, new ItemDto()).join();
+        upstream.clear();
+
+        readAll();
+        assertThat(upstream, hasSize(0));
+    }
+
+    private void readAll() {
+        itemClient.getItemById(1L, 10L).join();
+        itemClient.getItemById(2L, 10L).join();
+        itemClient.getItemById(1L, 11L).join();
+        itemClient.searchAvailableItems("дрель", 0, 10).join();
+        itemClient.suggestItemNames("дре", 10).join();
+    }
+}
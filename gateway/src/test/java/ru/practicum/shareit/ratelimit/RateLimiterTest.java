@@ -0,0 +1,123 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.validation.BindValidationException;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.NestedExceptionUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RateLimiterTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitProperties properties = new RateLimitProperties();
+    private UpstreamLatencyTracker latencyTracker;
+
+    @BeforeEach
+    void setUp() {
+        properties.setRoutes(List.of(route("/items", 1, 2), route("/items/search", 1, 1)));
+        properties.getShedding().setLatencyThreshold(Duration.ofMillis(100));
+        properties.getShedding().setSmoothing(1);
+        latencyTracker = new UpstreamLatencyTracker(properties, meterRegistry);
+    }
+
+    @Test
+    void tryAcquire_ShouldLimitEachUserOnLongestMatchingRoute() {
+        RateLimiter rateLimiter = new RateLimiter(properties, latencyTracker, meterRegistry);
+
+        assertThat(rateLimiter.tryAcquire("/items/search", 1), equalTo(RateLimiter.ALLOWED));
+        assertThat(rateLimiter.tryAcquire("/items/search", 1), greaterThan(0L));
+        // У /items свой бакет с burst 2, у другого пользователя - свой
+        assertThat(rateLimiter.tryAcquire("/items/1", 1), equalTo(RateLimiter.ALLOWED));
+        assertThat(rateLimiter.tryAcquire("/items", 1), equalTo(RateLimiter.ALLOWED));
+        assertThat(rateLimiter.tryAcquire("/items", 1), greaterThan(0L));
+        assertThat(rateLimiter.tryAcquire("/items/search", 2), equalTo(RateLimiter.ALLOWED));
+
+        assertThat(meterRegistry.get("gateway.rate-limit.rejected").tag("route", "/items").counter().count(),
+                equalTo(1.0));
+        assertThat(meterRegistry.get("gateway.rate-limit.rejected").tag("route", "/items/search").counter().count(),
+                equalTo(1.0));
+    }
+
+    @Test
+    void tryAcquire_ShouldNotLimitPathsOutsideRoutes() {
+        RateLimiter rateLimiter = new RateLimiter(properties, latencyTracker, meterRegistry);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(rateLimiter.tryAcquire("/itemsearch", 1), equalTo(RateLimiter.ALLOWED));
+            assertThat(rateLimiter.tryAcquire("/users/1", 1), equalTo(RateLimiter.ALLOWED));
+        }
+    }
+
+    @Test
+    void tryAcquire_ShouldShedMostRequestsWhenUpstreamIsSlow() {
+        RateLimiter rateLimiter = new RateLimiter(properties, latencyTracker, meterRegistry);
+        latencyTracker.record(Duration.ofSeconds(10).toNanos());
+
+        int shed = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (rateLimiter.tryAcquire("/users", i) == RateLimiter.SHED) {
+                shed++;
+            }
+        }
+        // Пропускается доля порог/задержка = 1%
+        assertThat(shed, greaterThan(900));
+
+        latencyTracker.record(Duration.ofMillis(10).toNanos());
+        assertThat(rateLimiter.tryAcquire("/users", 1), equalTo(RateLimiter.ALLOWED));
+    }
+
+    @Test
+    void clientKey_ShouldUseUserIdOrNegativeAddressHash() {
+        assertThat(RateLimiter.clientKey("42", "10.0.0.1"), equalTo(42L));
+        assertThat(RateLimiter.clientKey("abc", "10.0.0.1"), lessThan(0L));
+        assertThat(RateLimiter.clientKey("-5", "10.0.0.1"), equalTo(RateLimiter.clientKey(null, "10.0.0.1")));
+        assertThat(RateLimiter.clientKey(null, "10.0.0.1"), not(equalTo(RateLimiter.clientKey(null, "10.0.0.2"))));
+    }
+
+    @Test
+    void constructor_ShouldRejectRateTooSmallForNanosecondArithmetic() {
+        properties.setRoutes(List.of(route("/bookings", 1e-12, 1000)));
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new RateLimiter(properties, latencyTracker, meterRegistry));
+        assertThat(e.getMessage(), containsString("/bookings"));
+    }
+
+    @Test
+    void binding_ShouldRejectNonPositiveRate() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ValidationAutoConfiguration.class))
+                .withUserConfiguration(PropertiesConfiguration.class)
+                .withPropertyValues("shareit-gateway.rate-limit.routes[0].path=/bookings",
+                        "shareit-gateway.rate-limit.routes[0].permits-per-second=0",
+                        "shareit-gateway.rate-limit.routes[0].burst=10")
+                .run(context -> {
+                    Throwable cause = NestedExceptionUtils.getMostSpecificCause(context.getStartupFailure());
+                    assertThat(cause, instanceOf(BindValidationException.class));
+                    assertThat(cause.getMessage(), containsString("routes[0].permitsPerSecond"));
+                });
+    }
+
+    private static RateLimitProperties.Route route(String path, double permitsPerSecond, int burst) {
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPath(path);
+        route.setPermitsPerSecond(permitsPerSecond);
+        route.setBurst(burst);
+        return route;
+    }
+
+    @EnableConfigurationProperties(RateLimitProperties.class)
+    static class PropertiesConfiguration {
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class TokenBucketTableTest {
+    // Запрос раз в 100 нс, burst 5
+    private static final long INTERVAL = 100;
+    private static final long BURST = 5;
+    private static final long TOLERANCE = INTERVAL * BURST;
+
+    private final TokenBucketTable table = new TokenBucketTable(1024);
+
+    @Test
+    void tryAcquire_ShouldAllowBurstAndThenReject() {
+        for (int i = 0; i < BURST; i++) {
+            assertThat(table.tryAcquire(1, 1000, INTERVAL, TOLERANCE), equalTo(0L));
+        }
+
+        assertThat(table.tryAcquire(1, 1000, INTERVAL, TOLERANCE), equalTo(INTERVAL));
+        // Отказ не расходует бакет
+        assertThat(table.tryAcquire(1, 1050, INTERVAL, TOLERANCE), equalTo(50L));
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillOneRequestPerInterval() {
+        acquireBurst(1, 1000);
+
+        assertThat(table.tryAcquire(1, 1100, INTERVAL, TOLERANCE), equalTo(0L));
+        assertThat(table.tryAcquire(1, 1100, INTERVAL, TOLERANCE), equalTo(INTERVAL));
+        assertThat(table.tryAcquire(1, 1250, INTERVAL, TOLERANCE), equalTo(0L));
+        assertThat(table.tryAcquire(1, 1250, INTERVAL, TOLERANCE), equalTo(50L));
+
+        // После долгого простоя доступен весь burst, но не больше
+        assertThat(acquireBurst(1, 100_000), equalTo(BURST));
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepSeparateBucketsForEachKey() {
+        acquireBurst(1, 1000);
+
+        assertThat(table.tryAcquire(2, 1000, INTERVAL, TOLERANCE), equalTo(0L));
+        assertThat(table.tryAcquire(1, 1000, INTERVAL, TOLERANCE), equalTo(INTERVAL));
+    }
+
+    @Test
+    void tryAcquire_ShouldEvictOldestActiveKeyWithoutGrantingNewBurst() {
+        // В таблице из 8 ячеек цепочка любого ключа проходит все ячейки
+        TokenBucketTable small = new TokenBucketTable(8);
+        for (long key = 1; key <= 8; key++) {
+            for (int i = 0; i < BURST; i++) {
+                small.tryAcquire(key, 1000 + key, INTERVAL, TOLERANCE);
+            }
+        }
+
+        // Девятый ключ вытесняет бакет ключа 1 и получает его израсходованным
+        assertThat(small.tryAcquire(9, 1008, INTERVAL, TOLERANCE), equalTo(INTERVAL - 7));
+        // Вернувшийся ключ 1 тоже не получает полный бакет
+        assertThat(small.tryAcquire(1, 1008, INTERVAL, TOLERANCE), equalTo(INTERVAL - 7));
+        // Остальные ключи свои бакеты сохранили
+        assertThat(small.tryAcquire(8, 1008, INTERVAL, TOLERANCE), equalTo(INTERVAL));
+
+        // Когда бакеты заполнились, ячейку занимает новый ключ с полным burst
+        long key = 10;
+        long allowed = 0;
+        while (small.tryAcquire(key, 10_000, INTERVAL, TOLERANCE) == 0) {
+            allowed++;
+        }
+        assertThat(allowed, equalTo(BURST));
+    }
+
+    @Test
+    void tryAcquire_ShouldNeverShareBucketBetweenKeysUnderContention() throws Exception {
+        // 8 ключей делят таблицу из 8 ячеек, время не идёт: каждый ключ должен получить ровно burst запросов
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (int round = 0; round < 50; round++) {
+                TokenBucketTable shared = new TokenBucketTable(8);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Long>> allowed = new ArrayList<>();
+                for (int thread = 0; thread < 16; thread++) {
+                    long key = thread % 8 + 1;
+                    allowed.add(executor.submit(() -> {
+                        start.await();
+                        long count = 0;
+                        for (int i = 0; i < 20; i++) {
+                            if (shared.tryAcquire(key, 1000, INTERVAL, TOLERANCE) == 0) {
+                                count++;
+                            }
+                        }
+                        return count;
+                    }));
+                }
+                start.countDown();
+
+                long[] perKey = new long[8];
+                for (int thread = 0; thread < 16; thread++) {
+                    perKey[thread % 8] += allowed.get(thread).get(5, TimeUnit.SECONDS);
+                }
+                for (long count : perKey) {
+                    assertThat(count, equalTo(BURST));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long acquireBurst(long key, long now) {
+        long allowed = 0;
+        while (table.tryAcquire(key, now, INTERVAL, TOLERANCE) == 0) {
+            allowed++;
+        }
+        return allowed;
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.user.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.user.service.UserClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UserControllerTest {
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        // Заглушка shareit-server: удаление существующего пользователя 1, остальных пользователей нет
+        UserClient userClient = new UserClient("http://localhost:9090", baseUrl -> request -> {
+            boolean found = request.getMethod() == HttpMethod.DELETE && request.getPath().equals("/1");
+            return CompletableFuture.completedFuture(found
+                    ? ResponseEntity.ok().build()
+                    : ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("{\"error\":\"Not Found\"}".getBytes(StandardCharsets.UTF_8)));
+        });
+        mvc = MockMvcBuilders.standaloneSetup(new UserController(userClient)).build();
+    }
+
+    @Test
+    void deleteUser_ShouldReturnOk() throws Exception {
+        MvcResult result = mvc.perform(delete("/users/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deleteUser_ShouldPassNotFoundFromServer() throws Exception {
+        MvcResult result = mvc.perform(delete("/users/99"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("{\"error\":\"Not Found\"}"));
+    }
+}
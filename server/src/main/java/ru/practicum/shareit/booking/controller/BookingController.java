@@ -2,9 +2,11 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.model.dto.ReqBookingDto;
 import ru.practicum.shareit.booking.model.dto.RespBookingDto;
+import ru.practicum.shareit.booking.model.dto.RespBookingPageDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import java.util.List;
@@ -14,6 +16,9 @@ import java.util.List;
 @Slf4j
 @RequestMapping("/bookings")
 public class BookingController {
+    // Курсор следующей страницы; отсутствует, если страница последняя
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
 
     @GetMapping("/{bookingId}")
@@ -25,23 +30,31 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<RespBookingDto> getUserBookingsByState(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                       @RequestParam(defaultValue = "ALL") String state,
-                                                       @RequestParam(defaultValue = "0") int from,
-                                                       @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<RespBookingDto>> getUserBookingsByState(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                       @RequestParam(defaultValue = "ALL") String state,
+                                                                       @RequestParam(defaultValue = "0") int from,
+                                                                       @RequestParam(defaultValue = "10") int size,
+                                                                       @RequestParam(required = false) String cursor) {
         log.info("Поступил GET запрос в BookingController. " +
                 "Метод getUserBookingsByState(), userId={} ", userId);
-        return bookingService.getUserBookingsByState(userId, state, from, size);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getUserBookingsByState(userId, state, from, size));
+        }
+        return toResponse(bookingService.getUserBookingsByCursor(userId, state, cursor, size));
     }
 
     @GetMapping("/owner")
-    public List<RespBookingDto> getOwnerBookingsByState(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                        @RequestParam(defaultValue = "ALL") String state,
-                                                        @RequestParam(defaultValue = "0") int from,
-                                                        @RequestParam(defaultValue = "10") int size) {
+    public ResponseEntity<List<RespBookingDto>> getOwnerBookingsByState(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                        @RequestParam(defaultValue = "ALL") String state,
+                                                                        @RequestParam(defaultValue = "0") int from,
+                                                                        @RequestParam(defaultValue = "10") int size,
+                                                                        @RequestParam(required = false) String cursor) {
         log.info("Поступил GET запрос в BookingController. " +
                 "Метод getOwnerBookingsByState(), userId={} ", userId);
-        return bookingService.getOwnerBookingsByState(userId, state, from, size);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getOwnerBookingsByState(userId, state, from, size));
+        }
+        return toResponse(bookingService.getOwnerBookingsByCursor(userId, state, cursor, size));
     }
 
     @PostMapping
@@ -60,4 +73,12 @@ public class BookingController {
                 "Метод updateBooking(), userId={}, bookingId={}, approved={} ", userId, bookingId, approved);
         return bookingService.updateBooking(userId, bookingId, approved);
     }
+
+    private static ResponseEntity<List<RespBookingDto>> toResponse(RespBookingPageDto page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
+    }
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingInterval;
+
+// Публикуется в транзакции подтверждения бронирования владельцем
+@RequiredArgsConstructor
+@Getter
+public class BookingApprovedEvent {
+    private final BookingInterval interval;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Публикуется в транзакции удаления бронирования при очистке данных удалённого пользователя
+@RequiredArgsConstructor
+@Getter
+public class BookingDeletedEvent {
+    private final Long bookingId;
+    private final Long itemId;
+}
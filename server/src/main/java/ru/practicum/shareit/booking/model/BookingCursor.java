@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.exception.IncorrectBookingException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+// Позиция в списке бронирований, упорядоченном по (start desc, id desc).
+// Клиенту отдаётся непрозрачной строкой Base64
+@RequiredArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class BookingCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime start;
+    private final Long id;
+
+    // start_time хранится в БД с точностью до микросекунд, а у ещё не перечитанной сущности могут быть наносекунды:
+    // без округления сравнение по индексу (start_time, ...) вернуло бы саму запись курсора ещё раз
+    public static BookingCursor of(Booking booking) {
+        LocalDateTime start = booking.getStart().plusNanos(500).truncatedTo(ChronoUnit.MICROS);
+        return new BookingCursor(start, booking.getId());
+    }
+
+    public static BookingCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException(value);
+            }
+            return new BookingCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IncorrectBookingException(String.format("Некорректный cursor=%s", cursor));
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((start + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+// Период подтверждённого бронирования вещи
+@RequiredArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class BookingInterval {
+    private final Long id;
+    private final Long itemId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.model;
+
+// Последнее (past = true) или ближайшее следующее (past = false) бронирование вещи
+public interface NearestBooking {
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    Boolean getPast();
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.model.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+@Getter
+public class RespBookingPageDto {
+    private final List<RespBookingDto> bookings;
+    // null - страница последняя
+    private final String nextCursor;
+}
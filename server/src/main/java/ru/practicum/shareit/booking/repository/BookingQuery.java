@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Условия выборки списка бронирований пользователя
+@Getter
+@Builder
+public class BookingQuery {
+    private final Long userId;
+    // true - бронирования вещей пользователя, false - бронирования, сделанные пользователем
+    private final boolean owner;
+    private final String state;
+    private final LocalDateTime now;
+}
@@ -1,18 +1,22 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.model.NearestBooking;
+import ru.practicum.shareit.user.model.PurgeRow;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
     @Query("select book " +
            "from Booking as book " +
            "join book.item as i " +
@@ -31,70 +35,47 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "or (book.id = ?1 and u.id = ?2)")
     Booking findByBookingIdAndUserId(Long bookingId, Long userId);
 
-    List<Booking> findByBookerId(Long userId, Pageable page);
-
-    List<Booking> findByItemUserId(Long userId, Pageable page);
-
-    List<Booking> findByBookerIdAndEndBefore(Long userId, LocalDateTime now, Pageable page);
-
     List<Booking> findByBookerIdAndItemIdAndStatusAndEndBefore(Long userId,
                                                                Long itemId,
                                                                Status status,
                                                                LocalDateTime now,
                                                                Pageable page);
 
-    List<Booking> findByItemUserIdAndEndBefore(Long userId, LocalDateTime now, Pageable page);
-
-    @Query("select book " +
-            "from Booking as book " +
-            "join book.booker as b " +
-            "where b.id = ?1 "  +
-            "and (?2 between book.start and book.end)")
-    List<Booking> findByBookerIdAndCurrentState(Long userId, LocalDateTime now, Pageable page);
-
-    @Query("select book " +
-           "from Booking as book " +
-           "join book.item.user as u " +
-           "where u.id = ?1 "  +
-           "and (?2 between book.start and book.end)")
-    List<Booking> findByOwnerIdAndCurrentState(Long userId, LocalDateTime now, Pageable page);
-
-    List<Booking> findByBookerIdAndStartAfter(Long userId, LocalDateTime now, Pageable page);
-
-    List<Booking> findByItemUserIdAndStartAfter(Long userId, LocalDateTime now, Pageable page);
-
-    List<Booking> findByBookerIdAndStatus(Long userId, Status status, Pageable page);
-
-    List<Booking> findByItemUserIdAndStatus(Long userId, Status status, Pageable page);
-
+    // Пересекающихся с периодом бронирований может быть несколько, поэтому число строк ограничивает page
     @Query("select book " +
            "from Booking as book " +
            "join book.item as i " +
            "where i.id = ?1 " +
            "and book.status = ?2 " +
-           "and (?3 between book.start and book.end " +
-           "or ?4 between book.start and book.end)")
-    Booking findAvailableItemForBooking(Long itemId, Status status, LocalDateTime start, LocalDateTime end);
+           "and book.start <= ?4 " +
+           "and book.end >= ?3 " +
+           "order by book.start")
+    List<Booking> findOverlappingBookings(Long itemId, Status status, LocalDateTime start, LocalDateTime end,
+                                          Pageable page);
 
-    List<Booking> findByItemUserIdAndStatusAndStartBefore(Long userId,
-                                                          Status status,
-                                                          LocalDateTime now,
-                                                          Sort sort);
-
-    List<Booking> findByItemUserIdAndStatusAndStartAfter(Long userId,
-                                                         Status status,
-                                                         LocalDateTime now,
-                                                         Sort sort);
-
-    List<Booking> findByItemUserIdAndItemIdAndStatusAndStartBefore(Long user,
-                                                                   Long item,
-                                                                   Status status,
-                                                                   LocalDateTime now,
-                                                                   Pageable page);
+    @Query("select new ru.practicum.shareit.booking.model.BookingInterval(book.id, book.item.id, book.start, book.end) " +
+           "from Booking as book " +
+           "where book.status = ?1")
+    List<BookingInterval> findIntervalsByStatus(Status status);
 
-    List<Booking> findByItemUserIdAndItemIdAndStatusAndStartAfter(Long userId,
-                                                                  Long itemId,
-                                                                  Status status,
-                                                                  LocalDateTime now,
-                                                                  Pageable page);
+    // Бронирования пользователя и бронирования его вещей после lastId
+    @Query("select new ru.practicum.shareit.user.model.PurgeRow(book.id, book.item.id) " +
+           "from Booking as book " +
+           "where (book.booker.id = ?1 or book.item.user.id = ?1) and book.id > ?2 " +
+           "order by book.id")
+    List<PurgeRow> findPurgeRows(Long userId, Long lastId, Pageable page);
+
+    // Для каждой вещи из itemIds одна строка с последним и одна с ближайшим следующим бронированием
+    @Query(value = "select ranked.id as id, ranked.item as itemId, ranked.booker as bookerId, ranked.past as past " +
+           "from (select book.id, book.item, book.booker, book.start_time < :now as past, " +
+           "row_number() over (partition by book.item, book.start_time < :now " +
+           "order by case when book.start_time < :now then book.start_time end desc, book.start_time) as position " +
+           "from bookings as book " +
+           "where book.item in (:itemIds) " +
+           "and book.status = :status " +
+           "and book.start_time <> :now) as ranked " +
+           "where ranked.position = 1", nativeQuery = true)
+    List<NearestBooking> findNearestBookings(@Param("itemIds") Collection<Long> itemIds,
+                                             @Param("status") String status,
+                                             @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+
+import java.util.List;
+
+// Выборка списков бронирований по роли пользователя и state одним SQL запросом:
+// item и booker загружаются в том же запросе (fetch join), без отдельных select на каждую запись
+public interface BookingRepositoryCustom {
+    // Страница по from/size в порядке (start desc, id desc)
+    List<Booking> findPage(BookingQuery query, int from, int size);
+
+    // Бронирования в порядке (start desc, id desc), идущие после cursor (null - с начала списка).
+    // Условие по позиции, а не OFFSET, поэтому время выборки не растёт с номером страницы
+    List<Booking> findPageAfter(BookingQuery query, BookingCursor cursor, int limit);
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Booking> findPage(BookingQuery query, int from, int size) {
+        // Как и PageRequestFactory: from округляется вниз до начала страницы
+        int offset = from > 0 ? from / size * size : 0;
+        return createQuery(query, null)
+                .setFirstResult(offset)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    @Override
+    public List<Booking> findPageAfter(BookingQuery query, BookingCursor cursor, int limit) {
+        return createQuery(query, cursor)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private TypedQuery<Booking> createQuery(BookingQuery query, BookingCursor cursor) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Booking> criteria = cb.createQuery(Booking.class);
+        Root<Booking> booking = criteria.from(Booking.class);
+        // Fetch используется и как join для условия по владельцу вещи
+        Join<Booking, Item> item = (Join<Booking, Item>) booking.<Booking, Item>fetch("item");
+        booking.fetch("booker");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.isOwner()) {
+            predicates.add(cb.equal(item.get("user").get("id"), query.getUserId()));
+        } else {
+            predicates.add(cb.equal(booking.get("booker").get("id"), query.getUserId()));
+        }
+        predicates.add(buildStatePredicate(cb, booking, query.getState(), query.getNow()));
+
+        if (cursor != null) {
+            Path<LocalDateTime> start = booking.get("start");
+            Path<Long> id = booking.get("id");
+            predicates.add(cb.or(
+                    cb.lessThan(start, cursor.getStart()),
+                    cb.and(cb.equal(start, cursor.getStart()), cb.lessThan(id, cursor.getId()))));
+        }
+
+        criteria.select(booking)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(booking.get("start")), cb.desc(booking.get("id")));
+
+        return entityManager.createQuery(criteria);
+    }
+
+    private Predicate buildStatePredicate(CriteriaBuilder cb, Root<Booking> booking, String state, LocalDateTime now) {
+        switch (state) {
+            case "ALL":
+                return cb.conjunction();
+            case "PAST":
+                return cb.lessThan(booking.get("end"), now);
+            case "CURRENT":
+                return cb.and(
+                        cb.lessThanOrEqualTo(booking.get("start"), now),
+                        cb.greaterThanOrEqualTo(booking.get("end"), now));
+            case "FUTURE":
+                return cb.greaterThan(booking.get("start"), now);
+            case "WAITING":
+                return cb.equal(booking.get("status"), Status.WAITING);
+            case "REJECTED":
+                return cb.equal(booking.get("status"), Status.REJECTED);
+            default:
+                // Неизвестный state даёт пустой список
+                return cb.disjunction();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.event.BookingApprovedEvent;
+import ru.practicum.shareit.booking.event.BookingDeletedEvent;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+// Подтверждённые бронирования каждой вещи в памяти: проверка пересечения периодов
+// при создании бронирования выполняется за O(log n) без запроса к БД.
+// Заполняется после старта приложения, затем пополняется после коммита подтверждения бронирования.
+// Удаление бронирований и вещей при очистке данных удалённого пользователя убирает их периоды.
+// До окончания загрузки проверка выполняется запросом к БД
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingAvailabilityIndex {
+    private final BookingRepository bookingRepository;
+    private final ConcurrentMap<Long, ItemIntervals> items = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<Long, List<BookingInterval>> approved = bookingRepository.findIntervalsByStatus(Status.APPROVED).stream()
+                .collect(Collectors.groupingBy(BookingInterval::getItemId));
+
+        // Подтверждения, пришедшие во время загрузки, уже могут быть в индексе
+        approved.forEach((itemId, intervals) -> items.merge(itemId, ItemIntervals.of(intervals), ItemIntervals::union));
+        loaded = true;
+
+        log.info("Индекс доступности вещей загружен: бронирований={}, вещей={}",
+                approved.values().stream().mapToInt(List::size).sum(), approved.size());
+    }
+
+    @TransactionalEventListener
+    public void onBookingApproved(BookingApprovedEvent event) {
+        BookingInterval interval = event.getInterval();
+        items.compute(interval.getItemId(),
+                (itemId, intervals) -> (intervals == null ? ItemIntervals.EMPTY : intervals).with(interval));
+    }
+
+    @TransactionalEventListener
+    public void onBookingDeleted(BookingDeletedEvent event) {
+        items.computeIfPresent(event.getItemId(), (itemId, intervals) -> {
+            ItemIntervals remaining = intervals.without(event.getBookingId());
+            return remaining.size() == 0 ? null : remaining;
+        });
+    }
+
+    @TransactionalEventListener
+    public void onItemDeleted(ItemDeletedEvent event) {
+        items.remove(event.getItemId());
+    }
+
+    // Подтверждённое бронирование вещи, пересекающееся с [start, end]
+    public Optional<BookingInterval> findOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!loaded) {
+            return bookingRepository.findOverlappingBookings(itemId, Status.APPROVED, start, end, PageRequest.of(0, 1))
+                    .stream()
+                    .findFirst()
+                    .map(booking -> new BookingInterval(booking.getId(), itemId, booking.getStart(), booking.getEnd()));
+        }
+
+        ItemIntervals intervals = items.getOrDefault(itemId, ItemIntervals.EMPTY);
+        int index = intervals.findOverlap(start, end);
+        return index < 0 ? Optional.empty() : Optional.of(intervals.get(index, itemId));
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.model.dto.ReqBookingDto;
 import ru.practicum.shareit.booking.model.dto.RespBookingDto;
+import ru.practicum.shareit.booking.model.dto.RespBookingPageDto;
 
 import java.util.List;
 
@@ -12,6 +13,11 @@ public interface BookingService {
 
     List<RespBookingDto> getOwnerBookingsByState(Long userId, String state, int from, int size);
 
+    // Постраничный вывод по курсору: пустой cursor - первая страница
+    RespBookingPageDto getUserBookingsByCursor(Long userId, String state, String cursor, int size);
+
+    RespBookingPageDto getOwnerBookingsByCursor(Long userId, String state, String cursor, int size);
+
     RespBookingDto createBooking(Long userId, ReqBookingDto reqBookingDto);
 
     RespBookingDto updateBooking(Long userId, Long bookingId, Boolean approved);
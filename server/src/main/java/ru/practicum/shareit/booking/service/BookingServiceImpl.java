@@ -2,15 +2,20 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.event.BookingApprovedEvent;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingInterval;
 import ru.practicum.shareit.booking.model.dto.ReqBookingDto;
 import ru.practicum.shareit.booking.model.dto.RespBookingDto;
+import ru.practicum.shareit.booking.model.dto.RespBookingPageDto;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.IncorrectBookingException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -18,19 +23,27 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
-import ru.practicum.shareit.utils.PageRequestFactory;
+import ru.practicum.shareit.user.service.UserExistenceService;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final String PERIOD_CONSTRAINT = "ex_bookings_item_period";
+    // exclusion_violation в PostgreSQL
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserExistenceService userExistenceService;
 
     @Transactional(readOnly = true)
     @Override
@@ -53,30 +66,12 @@ public class BookingServiceImpl implements BookingService {
     public List<RespBookingDto> getUserBookingsByState(Long userId, String state, int from, int size) {
         checkIfUserExists(userId);
 
-        Pageable page = PageRequestFactory
-                .createPageRequest(from, size, Sort.by(Sort.Direction.DESC, "start"));
-        List<Booking> dbBookings = new ArrayList<>();
-
-        switch (state) {
-            case "ALL":
-                dbBookings = bookingRepository.findByBookerId(userId, page);
-                break;
-            case "PAST":
-                dbBookings = bookingRepository.findByBookerIdAndEndBefore(userId, LocalDateTime.now(), page);
-                break;
-            case "CURRENT":
-                dbBookings = bookingRepository.findByBookerIdAndCurrentState(userId, LocalDateTime.now(), page);
-                break;
-            case "FUTURE":
-                dbBookings = bookingRepository.findByBookerIdAndStartAfter(userId, LocalDateTime.now(), page);
-                break;
-            case "WAITING":
-                dbBookings = bookingRepository.findByBookerIdAndStatus(userId, Status.WAITING, page);
-                break;
-            case "REJECTED":
-                dbBookings = bookingRepository.findByBookerIdAndStatus(userId, Status.REJECTED, page);
-                break;
-        }
+        List<Booking> dbBookings = bookingRepository.findPage(BookingQuery.builder()
+                .userId(userId)
+                .owner(false)
+                .state(state)
+                .now(LocalDateTime.now())
+                .build(), from, size);
 
         log.info("GET запрос в BookingController обработан успешно. Метод getUserBookingsByState(), " +
                 "userId={}, state={}", userId, state);
@@ -89,31 +84,12 @@ public class BookingServiceImpl implements BookingService {
     public List<RespBookingDto> getOwnerBookingsByState(Long userId, String state, int from, int size) {
         checkIfUserExists(userId);
 
-        Pageable page = PageRequestFactory
-                .createPageRequest(from, size, Sort.by(Sort.Direction.DESC, "start"));
-
-        List<Booking> dbBookings = new ArrayList<>();
-
-        switch (state) {
-            case "ALL":
-                dbBookings = bookingRepository.findByItemUserId(userId, page);
-                break;
-            case "PAST":
-                dbBookings = bookingRepository.findByItemUserIdAndEndBefore(userId, LocalDateTime.now(), page);
-                break;
-            case "CURRENT":
-                dbBookings = bookingRepository.findByOwnerIdAndCurrentState(userId, LocalDateTime.now(), page);
-                break;
-            case "FUTURE":
-                dbBookings = bookingRepository.findByItemUserIdAndStartAfter(userId, LocalDateTime.now(), page);
-                break;
-            case "WAITING":
-                dbBookings = bookingRepository.findByItemUserIdAndStatus(userId, Status.WAITING, page);
-                break;
-            case "REJECTED":
-                dbBookings = bookingRepository.findByItemUserIdAndStatus(userId, Status.REJECTED, page);
-                break;
-        }
+        List<Booking> dbBookings = bookingRepository.findPage(BookingQuery.builder()
+                .userId(userId)
+                .owner(true)
+                .state(state)
+                .now(LocalDateTime.now())
+                .build(), from, size);
 
         log.info("GET запрос в BookingController обработан успешно. Метод getOwnerBookingsByState(), " +
                 "userId={}, state={}", userId, state);
@@ -121,10 +97,46 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.buildRespBookingDto(dbBookings);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public RespBookingPageDto getUserBookingsByCursor(Long userId, String state, String cursor, int size) {
+        checkIfUserExists(userId);
+
+        RespBookingPageDto page = findBookingsPage(BookingQuery.builder()
+                .userId(userId)
+                .owner(false)
+                .state(state)
+                .now(LocalDateTime.now())
+                .build(), cursor, size);
+
+        log.info("GET запрос в BookingController обработан успешно. Метод getUserBookingsByCursor(), " +
+                "userId={}, state={}, cursor={}", userId, state, cursor);
+
+        return page;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public RespBookingPageDto getOwnerBookingsByCursor(Long userId, String state, String cursor, int size) {
+        checkIfUserExists(userId);
+
+        RespBookingPageDto page = findBookingsPage(BookingQuery.builder()
+                .userId(userId)
+                .owner(true)
+                .state(state)
+                .now(LocalDateTime.now())
+                .build(), cursor, size);
+
+        log.info("GET запрос в BookingController обработан успешно. Метод getOwnerBookingsByCursor(), " +
+                "userId={}, state={}, cursor={}", userId, state, cursor);
+
+        return page;
+    }
+
     @Transactional
     @Override
     public RespBookingDto createBooking(Long userId, ReqBookingDto reqBookingDto) {
-        User dbUser = checkIfUserExists(userId);
+        User dbUser = findUserById(userId);
         Long itemId = reqBookingDto.getItemId();
 
         Item dbItem = itemRepository.findByIdAndUserIdNot(itemId, userId).orElseThrow(() ->
@@ -162,12 +174,29 @@ public class BookingServiceImpl implements BookingService {
         }
 
         if (approved) {
+            checkPeriodForAvailability(dbBooking.getItem().getId(), dbBooking.getStart(), dbBooking.getEnd());
             dbBooking.setStatus(Status.APPROVED);
         } else {
             dbBooking.setStatus(Status.REJECTED);
         }
 
-        Booking updateBooking = bookingRepository.save(dbBooking);
+        Booking updateBooking;
+        try {
+            // Параллельное подтверждение пересекающегося бронирования отклоняет ограничение ex_bookings_item_period
+            updateBooking = bookingRepository.saveAndFlush(dbBooking);
+        } catch (DataIntegrityViolationException e) {
+            if (!isPeriodConflict(e)) {
+                throw e;
+            }
+            throw new IncorrectBookingException(String.format("Item с id=%d уже забронирован на период c date=%s до date=%s",
+                    dbBooking.getItem().getId(), dbBooking.getStart(), dbBooking.getEnd()));
+        }
+
+        if (approved) {
+            // Индекс доступности обновится после коммита
+            eventPublisher.publishEvent(new BookingApprovedEvent(new BookingInterval(updateBooking.getId(),
+                    updateBooking.getItem().getId(), updateBooking.getStart(), updateBooking.getEnd())));
+        }
         log.info("PATCH запрос в BookingController обработан успешно. " +
                 "Метод updateBooking(), userId={}, booking={}, approved={}, updateBooking={}",
                 userId, bookingId, approved, updateBooking);
@@ -175,21 +204,47 @@ public class BookingServiceImpl implements BookingService {
         return BookingMapper.buildRespBookingDto(updateBooking);
     }
 
-    private User checkIfUserExists(Long userId) {
+    // Hibernate не извлекает имя нарушенного исключающего ограничения (SQLState 23P01),
+    // поэтому оно проверяется по исключению драйвера
+    private static boolean isPeriodConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState())) {
+                return cause.getMessage() != null && cause.getMessage().contains(PERIOD_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+
+    // Запрашивается на одну запись больше: если она есть, страница не последняя
+    private RespBookingPageDto findBookingsPage(BookingQuery query, String cursor, int size) {
+        if (size <= 0) {
+            throw new IncorrectBookingException(String.format("Размер страницы size=%d должен быть больше 0", size));
+        }
+        BookingCursor after = cursor.isEmpty() ? null : BookingCursor.decode(cursor);
+
+        List<Booking> dbBookings = bookingRepository.findPageAfter(query, after, size + 1);
+        String nextCursor = null;
+        if (dbBookings.size() > size) {
+            dbBookings = dbBookings.subList(0, size);
+            nextCursor = BookingCursor.of(dbBookings.get(size - 1)).encode();
+        }
+
+        return new RespBookingPageDto(BookingMapper.buildRespBookingDto(dbBookings), nextCursor);
+    }
+
+    private void checkIfUserExists(Long userId) {
+        if (!userExistenceService.exists(userId)) {
+            throw new NotFoundException(String.format("Пользователя с таким id=%d нет", userId));
+        }
+    }
+
+    private User findUserById(Long userId) {
         return userRepository.findById(userId).orElseThrow(() ->
                 new NotFoundException(String.format("Пользователя с таким id=%d нет", + userId)));
     }
 
     private void checkItemForAvailability(Item dbItem, LocalDateTime start, LocalDateTime end) {
-        Long itemId = dbItem.getId();
-        // Здесь ищем бронирование dbItem, которое ещё не закончилось.
-        Booking dbBooking = bookingRepository
-                .findAvailableItemForBooking(itemId, Status.APPROVED, start, end);
-
-        if (dbBooking != null) {
-            throw new IncorrectBookingException(String.format("Item с id=%d находится в аренде c date=%s до date=%s",
-                    dbItem.getId(), dbBooking.getStart(), dbBooking.getEnd()));
-        }
+        checkPeriodForAvailability(dbItem.getId(), start, end);
 
         boolean isAvailable = dbItem.getAvailable();
         if (!isAvailable) {
@@ -197,6 +252,16 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    private void checkPeriodForAvailability(Long itemId, LocalDateTime start, LocalDateTime end) {
+        // Здесь ищем подтверждённое бронирование вещи, пересекающееся с [start, end]
+        Optional<BookingInterval> overlap = availabilityIndex.findOverlap(itemId, start, end);
+
+        if (overlap.isPresent()) {
+            throw new IncorrectBookingException(String.format("Item с id=%d находится в аренде c date=%s до date=%s",
+                    itemId, overlap.get().getStart(), overlap.get().getEnd()));
+        }
+    }
+
     private void checkBookingTime(ReqBookingDto reqBookingDto) {
         LocalDateTime start = reqBookingDto.getStart();
         LocalDateTime end = reqBookingDto.getEnd();
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.BookingInterval;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+// Неизменяемый набор периодов бронирований одной вещи.
+// Периоды отсортированы по началу, maxEnds[i] - наибольший конец среди первых i + 1 периодов,
+// поэтому пересечение с [start, end] находится двумя бинарными поисками.
+// Время хранится в наносекундах эпохи (LocalDateTime как UTC)
+class ItemIntervals {
+    static final ItemIntervals EMPTY = new ItemIntervals(new long[0], new long[0], new long[0]);
+
+    private final long[] ids;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnds;
+
+    private ItemIntervals(long[] ids, long[] starts, long[] ends) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new long[ends.length];
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    static ItemIntervals of(Collection<BookingInterval> intervals) {
+        BookingInterval[] sorted = intervals.stream()
+                .sorted(Comparator.comparing(BookingInterval::getStart))
+                .toArray(BookingInterval[]::new);
+        long[] ids = new long[sorted.length];
+        long[] starts = new long[sorted.length];
+        long[] ends = new long[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            ids[i] = sorted[i].getId();
+            starts[i] = toNanos(sorted[i].getStart());
+            ends[i] = toNanos(sorted[i].getEnd());
+        }
+        return new ItemIntervals(ids, starts, ends);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    boolean contains(long id) {
+        for (long existing : ids) {
+            if (existing == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Копия с добавленным периодом; повторное добавление того же бронирования ничего не меняет
+    ItemIntervals with(BookingInterval interval) {
+        if (contains(interval.getId())) {
+            return this;
+        }
+        long start = toNanos(interval.getStart());
+        int position = upperBound(starts, start);
+        return new ItemIntervals(
+                insert(ids, position, interval.getId()),
+                insert(starts, position, start),
+                insert(ends, position, toNanos(interval.getEnd())));
+    }
+
+    // Копия без периода бронирования id; если его нет, возвращается тот же набор
+    ItemIntervals without(long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return new ItemIntervals(remove(ids, i), remove(starts, i), remove(ends, i));
+            }
+        }
+        return this;
+    }
+
+    // Объединение без повторов по id бронирования
+    ItemIntervals union(ItemIntervals other) {
+        ItemIntervals result = this;
+        for (int i = 0; i < other.ids.length; i++) {
+            result = result.with(other.get(i, null));
+        }
+        return result;
+    }
+
+    // Индекс любого периода, пересекающегося с [start, end] (границы включительно), или -1
+    int findOverlap(LocalDateTime start, LocalDateTime end) {
+        long from = toNanos(start);
+        long to = toNanos(end);
+        // Кандидаты - периоды, начавшиеся не позже end
+        int last = upperBound(starts, to) - 1;
+        if (last < 0 || maxEnds[last] < from) {
+            return -1;
+        }
+        // Первый период, на котором максимум концов достигает start, сам заканчивается не раньше start
+        int low = 0;
+        int high = last;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (maxEnds[middle] >= from) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    BookingInterval get(int index, Long itemId) {
+        return new BookingInterval(ids[index], itemId, toDateTime(starts[index]), toDateTime(ends[index]));
+    }
+
+    static long toNanos(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + dateTime.getNano();
+    }
+
+    private static LocalDateTime toDateTime(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    // Первая позиция, где значение больше key
+    private static int upperBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long[] remove(long[] values, int position) {
+        long[] result = Arrays.copyOf(values, values.length - 1);
+        System.arraycopy(values, position + 1, result, position, values.length - position - 1);
+        return result;
+    }
+
+    private static long[] insert(long[] values, int position, long value) {
+        long[] result = Arrays.copyOf(values, values.length + 1);
+        System.arraycopy(values, position, result, position + 1, values.length - position);
+        result[position] = value;
+        return result;
+    }
+}
@@ -51,6 +51,13 @@ public class ItemController {
         return itemService.searchAvailableItems(text, from, size);
     }
 
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(@RequestParam String prefix,
+                                         @RequestParam(defaultValue = "10") int size) {
+        log.info("Поступил GET запрос в ItemController: метод suggestItemNames(), prefix={}", prefix);
+        return itemService.suggestItemNames(prefix, size);
+    }
+
     @PostMapping
     public ItemDto createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                               @RequestBody ItemDto itemDto) {
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Публикуется в транзакции создания комментария к вещи
+@RequiredArgsConstructor
+@Getter
+public class CommentCreatedEvent {
+    private final Long itemId;
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Публикуется в транзакции удаления комментария при очистке данных удалённого пользователя
+@RequiredArgsConstructor
+@Getter
+public class CommentDeletedEvent {
+    private final Long itemId;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+
+// Публикуется в транзакции создания или изменения вещи
+@RequiredArgsConstructor
+@Getter
+public class ItemSavedEvent {
+    private final ItemDto item;
+}
@@ -1,19 +1,19 @@
 package ru.practicum.shareit.item.mapper;
 
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingInfo;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemDetail;
 import ru.practicum.shareit.item.model.dto.ItemDto;
 import ru.practicum.shareit.item.model.dto.LongItemDto;
 import ru.practicum.shareit.item.model.dto.RespCommentDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.LongHashMap;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 public class ItemMapper {
@@ -44,18 +44,9 @@ public class ItemMapper {
     }
 
     public static LongItemDto buildLongItemDto(Item item,
-                                               List<Booking> lastBooking,
-                                               List<Booking> nextBooking,
+                                               BookingInfo lastBooking,
+                                               BookingInfo nextBooking,
                                                List<RespCommentDto> comments) {
-        Booking last = null;
-        Booking next = null;
-        if (!lastBooking.isEmpty()) {
-            last = lastBooking.get(0);
-        }
-        if (!nextBooking.isEmpty()) {
-            next = nextBooking.get(0);
-        }
-
         Long itemRequest = null;
         if (item.getRequest() != null) {
             itemRequest = item.getRequest().getId();
@@ -66,14 +57,36 @@ public class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
-                .lastBooking(getBookingInfo(last))
-                .nextBooking(getBookingInfo(next))
+                .lastBooking(lastBooking)
+                .nextBooking(nextBooking)
                 .comments(comments)
                 .requestId(itemRequest)
                 .build();
 
     }
 
+    public static LongItemDto buildLongItemDto(ItemDetail item, List<RespCommentDto> comments) {
+        BookingInfo lastBooking = null;
+        BookingInfo nextBooking = null;
+        if (item.getLastBookingId() != null) {
+            lastBooking = new BookingInfo(item.getLastBookingId(), item.getLastBookerId());
+        }
+        if (item.getNextBookingId() != null) {
+            nextBooking = new BookingInfo(item.getNextBookingId(), item.getNextBookerId());
+        }
+
+        return LongItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .lastBooking(lastBooking)
+                .nextBooking(nextBooking)
+                .comments(comments)
+                .requestId(item.getRequestId())
+                .build();
+    }
+
     public static List<ItemDto> buildItemDtoList(List<Item> items) {
         return items.stream()
                 .map(ItemMapper::buildItemDto)
@@ -81,42 +94,21 @@ public class ItemMapper {
     }
 
     public static List<LongItemDto> buildLongItemDtoList(List<Item> items,
-                                                         Map<Item, Booking> last,
-                                                         Map<Item, Booking> next,
-                                                         Map<Item, List<Comment>> comments) {
+                                                         LongHashMap<BookingInfo> last,
+                                                         LongHashMap<BookingInfo> next,
+                                                         LongHashMap<List<Comment>> comments) {
 
-        List<LongItemDto> itemDtos = new ArrayList<>();
+        List<LongItemDto> itemDtos = new ArrayList<>(items.size());
 
         for (Item item : items) {
-            List<RespCommentDto> commentDtos = new ArrayList<>();
-            List<Booking> lastBooking = new ArrayList<>();
-            List<Booking> nextBooking = new ArrayList<>();
-
-            if (last.containsKey(item)) {
-                lastBooking.add(last.get(item));
-            }
-            if (next.containsKey(item)) {
-                nextBooking.add(next.get(item));
-            }
-            if (comments.containsKey(item)) {
-                 commentDtos = CommentMapper.buildCommentDtoList(comments.getOrDefault(item, Collections.emptyList()));
-            }
-
-            itemDtos.add(buildLongItemDto(item, lastBooking, nextBooking, commentDtos));
-        }
+            long itemId = item.getId();
+            List<RespCommentDto> commentDtos = CommentMapper.buildCommentDtoList(
+                    comments.getOrDefault(itemId, Collections.emptyList()));
 
-        return itemDtos;
-    }
-
-    private static BookingInfo getBookingInfo(Booking booking) {
-        if (booking == null) {
-            return null;
+            itemDtos.add(buildLongItemDto(item, last.get(itemId), next.get(itemId), commentDtos));
         }
 
-        Long id = booking.getId();
-        Long bookerId = booking.getBooker().getId();
-
-        return new BookingInfo(id, bookerId);
+        return itemDtos;
     }
 }
 
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.model;
+
+import java.time.LocalDateTime;
+
+// Карточка вещи одной строкой: поля вещи, последнее и следующее бронирование, существование пользователя.
+// userId == null - пользователя нет, id == null - вещи нет
+public interface ItemDetail {
+    Long getUserId();
+
+    Long getId();
+
+    Long getOwnerId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getRequestId();
+
+    Long getLastBookingId();
+
+    Long getLastBookerId();
+
+    Long getNextBookingId();
+
+    Long getNextBookerId();
+
+    LocalDateTime getNextBookingStart();
+}
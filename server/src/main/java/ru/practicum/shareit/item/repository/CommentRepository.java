@@ -1,15 +1,32 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.dto.RespCommentDto;
+import ru.practicum.shareit.user.model.PurgeRow;
 
 import java.util.List;
 import java.util.Set;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(Long itemId);
+    // Имя автора читается join-ом в том же запросе, без отдельной загрузки User на каждый комментарий
+    @Query("select new ru.practicum.shareit.item.model.dto.RespCommentDto(com.id, com.text, author.name, com.created) " +
+           "from Comment as com " +
+           "join com.author as author " +
+           "where com.item.id = ?1 " +
+           "order by com.id")
+    List<RespCommentDto> findCommentDtosByItemId(Long itemId);
 
     List<Comment> findByItemIdIn(Set<Long> items);
+
+    // Комментарии пользователя и комментарии к его вещам после lastId
+    @Query("select new ru.practicum.shareit.user.model.PurgeRow(com.id, com.item.id) " +
+           "from Comment as com " +
+           "where (com.author.id = ?1 or com.item.user.id = ?1) and com.id > ?2 " +
+           "order by com.id")
+    List<PurgeRow> findPurgeRows(Long userId, Long lastId, Pageable page);
 }
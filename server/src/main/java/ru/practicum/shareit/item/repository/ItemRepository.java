@@ -3,9 +3,13 @@ package ru.practicum.shareit.item.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemDetail;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +17,19 @@ import java.util.Optional;
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findByUserId(Long userId, Pageable page);
 
+    List<Item> findByIdGreaterThan(Long id, Pageable page);
+
+    List<Item> findByUserIdAndAvailableTrue(Long userId);
+
+    List<Item> findByRequestIdInOrderById(Collection<Long> requestIds);
+
+    @Query("select it.id from Item as it where it.user.id = ?1 and it.id > ?2 order by it.id")
+    List<Long> findIdsByUserId(Long userId, Long lastId, Pageable page);
+
+    // Чужие вещи, добавленные в ответ на запросы пользователя
+    @Query("select it from Item as it where it.request.creator.id = ?1 and it.user.id <> ?1 and it.id > ?2 order by it.id")
+    List<Item> findAnswersToRequestsOf(Long userId, Long lastId, Pageable page);
+
     Optional<Item> findByIdAndUserIdNot(Long itemId, Long userId);
 
     @Query("select it " +
@@ -21,4 +38,39 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
            "or upper(it.description) like upper('%'||?1||'%')) " +
            "and it.available = true")
     List<Item> findByText(String text, Pageable page);
+
+    // Только для PostgreSQL: столбец search и его индекс создаются в schema-postgresql.sql
+    @Query(value = "select it.id, it.user_id, it.name, it.description, it.available, it.request " +
+           "from items as it " +
+           "cross join (select to_tsquery('russian', :query) || to_tsquery('english', :query) as q) as tsq " +
+           "where it.available = true " +
+           "and it.search @@ tsq.q " +
+           "order by ts_rank(it.search, tsq.q) desc, it.id", nativeQuery = true)
+    List<Item> findByFullText(@Param("query") String query, Pageable page);
+
+    // Строка возвращается всегда: пользователь и вещь присоединяются к одной строке-заглушке,
+    // так что один запрос и проверяет существование обоих, и читает карточку.
+    // SQL обходит @Where сущности User, поэтому мягко удалённый пользователь отсекается явно.
+    // Последнее и следующее бронирование - только для владельца вещи, по индексу (item, status, start_time)
+    @Query(value = "select u.id as userId, it.id as id, it.user_id as ownerId, it.name as name, it.description as description, " +
+           "it.available as available, it.request as requestId, " +
+           "last_book.id as lastBookingId, last_book.booker as lastBookerId, " +
+           "next_book.id as nextBookingId, next_book.booker as nextBookerId, next_book.start_time as nextBookingStart " +
+           "from (select 1 as one) as stub " +
+           "left join users as u on u.id = :userId and u.deleted = false " +
+           "left join items as it on it.id = :itemId " +
+           "left join bookings as last_book on last_book.id = (" +
+           "select book.id from bookings as book " +
+           "where book.item = it.id and it.user_id = :userId " +
+           "and book.status = :status and book.start_time < :now " +
+           "order by book.start_time desc limit 1) " +
+           "left join bookings as next_book on next_book.id = (" +
+           "select book.id from bookings as book " +
+           "where book.item = it.id and it.user_id = :userId " +
+           "and book.status = :status and book.start_time > :now " +
+           "order by book.start_time limit 1)", nativeQuery = true)
+    ItemDetail findItemDetail(@Param("userId") Long userId,
+                              @Param("itemId") Long itemId,
+                              @Param("status") String status,
+                              @Param("now") LocalDateTime now);
 }
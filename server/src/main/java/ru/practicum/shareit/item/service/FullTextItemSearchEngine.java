@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.utils.PageRequestFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Полнотекстовый поиск PostgreSQL по столбцу items.search с GIN-индексом (schema-postgresql.sql).
+// Каждое слово запроса ищется как префикс с учётом морфологии русского и английского,
+// результаты упорядочены по релевантности
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.engine", havingValue = "full-text")
+@RequiredArgsConstructor
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        String query = toTsQuery(text);
+        if (query.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Порядок задаёт сам запрос: по рангу, затем по id
+        Pageable page = PageRequestFactory.createPageRequest(from, size, Sort.unsorted());
+        return ItemMapper.buildItemDtoList(itemRepository.findByFullText(query, page));
+    }
+
+    // "Дрель, ударная!" -> "Дрель:* & ударная:*". Всё, кроме букв и цифр, отбрасывается,
+    // поэтому операторы tsquery из пользовательского текста в запрос не попадают
+    static String toTsQuery(String text) {
+        return Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,170 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingApprovedEvent;
+import ru.practicum.shareit.booking.event.BookingDeletedEvent;
+import ru.practicum.shareit.item.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.event.CommentDeletedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.dto.LongItemDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Кэш карточек вещей (GET /items/{itemId}). Для каждой вещи хранятся два представления:
+// для владельца - с последним и следующим бронированием, для остальных пользователей - без них.
+// Запись удаляется после коммита изменения или удаления вещи, нового комментария или подтверждения бронирования,
+// а также после удаления комментариев и бронирований при очистке данных удалённого пользователя.
+// Представление владельца живёт не дольше начала следующего бронирования: в этот момент меняются last и next.
+// Метрики: cache.gets, cache.size, cache.evictions с тегом cache=items.detail
+@Component
+public class ItemDetailCache {
+    private final Cache<ViewKey, View> cache;
+    private final boolean enabled;
+    private final Duration ttl;
+    // Увеличивается при каждой инвалидации. Карточка, прочитанная из БД до инвалидации,
+    // в кэш уже не кладётся, чтобы не вернуть туда устаревшие данные
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemDetailCache(ItemDetailCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.ttl = properties.getTtl();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfter(new Expiry<ViewKey, View>() {
+                    @Override
+                    public long expireAfterCreate(ViewKey key, View view, long currentTime) {
+                        return view.lifetimeNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ViewKey key, View view, long currentTime, long currentDuration) {
+                        return view.lifetimeNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ViewKey key, View view, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items.detail");
+    }
+
+    // null - карточки для этого пользователя в кэше нет
+    public LongItemDto get(Long userId, Long itemId) {
+        if (!enabled) {
+            return null;
+        }
+
+        View ownerView = cache.getIfPresent(new ViewKey(itemId, true));
+        if (ownerView != null && ownerView.ownerId.equals(userId)) {
+            return ownerView.item;
+        }
+
+        View publicView = cache.getIfPresent(new ViewKey(itemId, false));
+        if (publicView != null && !publicView.ownerId.equals(userId)) {
+            return publicView.item;
+        }
+        return null;
+    }
+
+    // Значение передаётся в put: так put отличит карточку, прочитанную до инвалидации
+    public long generation() {
+        return generation.get();
+    }
+
+    // nextBookingStart - начало следующего бронирования в представлении владельца, null - следующего нет
+    public void put(Long userId, Long ownerId, LongItemDto item, LocalDateTime nextBookingStart, long loadGeneration) {
+        if (!enabled || loadGeneration != generation.get()) {
+            return;
+        }
+
+        boolean owner = ownerId.equals(userId);
+        Duration lifetime = ttl;
+        if (owner && nextBookingStart != null) {
+            Duration untilNextBooking = Duration.between(LocalDateTime.now(), nextBookingStart);
+            if (untilNextBooking.compareTo(lifetime) < 0) {
+                lifetime = untilNextBooking;
+            }
+        }
+        if (lifetime.isNegative() || lifetime.isZero()) {
+            return;
+        }
+
+        ViewKey key = new ViewKey(item.getId(), owner);
+        cache.put(key, new View(ownerId, item, lifetime.toNanos()));
+        // evict между проверкой поколения и cache.put снимает записи вещи для владельца и публичную раньше,
+        // чем появится эта. Запись своего вида (ключ key) собрана до изменения вещи или бронирований - снимаем её
+        if (loadGeneration != generation.get()) {
+            cache.invalidate(key);
+        }
+    }
+
+    public void evict(Long itemId) {
+        generation.incrementAndGet();
+        cache.invalidate(new ViewKey(itemId, true));
+        cache.invalidate(new ViewKey(itemId, false));
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        evict(event.getItem().getId());
+    }
+
+    @TransactionalEventListener
+    public void onCommentCreated(CommentCreatedEvent event) {
+        evict(event.getItemId());
+    }
+
+    @TransactionalEventListener
+    public void onItemDeleted(ItemDeletedEvent event) {
+        evict(event.getItemId());
+    }
+
+    @TransactionalEventListener
+    public void onCommentDeleted(CommentDeletedEvent event) {
+        evict(event.getItemId());
+    }
+
+    // Бронирования видны только владельцу, представление для остальных не меняется
+    @TransactionalEventListener
+    public void onBookingApproved(BookingApprovedEvent event) {
+        evictOwnerView(event.getInterval().getItemId());
+    }
+
+    @TransactionalEventListener
+    public void onBookingDeleted(BookingDeletedEvent event) {
+        evictOwnerView(event.getItemId());
+    }
+
+    private void evictOwnerView(Long itemId) {
+        generation.incrementAndGet();
+        cache.invalidate(new ViewKey(itemId, true));
+    }
+
+    @RequiredArgsConstructor
+    @EqualsAndHashCode
+    private static class ViewKey {
+        private final Long itemId;
+        private final boolean owner;
+    }
+
+    @RequiredArgsConstructor
+    private static class View {
+        private final Long ownerId;
+        private final LongItemDto item;
+        private final long lifetimeNanos;
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "shareit.item.detail-cache")
+@Getter
+@Setter
+public class ItemDetailCacheProperties {
+    private boolean enabled = true;
+    private long maxSize = 10_000;
+    // Верхняя граница жизни записи: имена авторов комментариев меняются без события
+    private Duration ttl = Duration.ofMinutes(10);
+}
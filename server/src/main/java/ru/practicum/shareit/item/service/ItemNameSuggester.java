@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.utils.LongHashMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Подсказки при вводе поискового запроса: дополнение последнего слова по словам из названий доступных вещей.
+// Дерево строится после старта приложения и обновляется после коммита создания или изменения вещи.
+// До окончания построения подсказки пустые: это не ошибка, пользователь всё равно может выполнить поиск
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemNameSuggester {
+    static final int MAX_SUGGESTIONS = 10;
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ItemRepository itemRepository;
+    private final ItemSnapshotIndex<ItemNames> names = new ItemSnapshotIndex<>(ItemNames::new);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        names.load(itemRepository, (index, item) -> index.put(item.getId(), item.getName(), item.getAvailable()));
+        log.info("Дерево подсказок по названиям вещей построено: доступных вещей={}", names.read(ItemNames::size));
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        ItemDto item = event.getItem();
+        names.update(index -> index.put(item.getId(), item.getName(), item.getAvailable()));
+    }
+
+    @TransactionalEventListener
+    public void onItemDeleted(ItemDeletedEvent event) {
+        names.update(index -> index.put(event.getItemId(), null, false));
+    }
+
+    // Слова перед последним сохраняются как есть, последнее дополняется самыми популярными словами
+    public List<String> suggest(String prefix, int size) {
+        String text = prefix.toLowerCase(Locale.ROOT);
+        String[] words = SEPARATOR.split(text, -1);
+        String last = words[words.length - 1];
+        if (last.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> completions = names.read(index -> index.trie.suggest(last, Math.min(size, MAX_SUGGESTIONS)));
+
+        String head = text.substring(0, text.length() - last.length());
+        List<String> suggestions = new ArrayList<>(completions.size());
+        for (String completion : completions) {
+            suggestions.add(head + completion);
+        }
+        return suggestions;
+    }
+
+    private static final class ItemNames {
+        private final ItemNameTrie trie = new ItemNameTrie(MAX_SUGGESTIONS);
+        // Слова названия каждой проиндексированной вещи, чтобы при изменении вещи снять их популярность
+        private final LongHashMap<Set<String>> itemWords = new LongHashMap<>();
+
+        private void put(long itemId, String name, Boolean available) {
+            Set<String> previous = itemWords.remove(itemId);
+            if (previous != null) {
+                previous.forEach(word -> trie.add(word, -1));
+            }
+            if (!Boolean.TRUE.equals(available) || name == null) {
+                return;
+            }
+
+            Set<String> words = new LinkedHashSet<>();
+            for (String word : SEPARATOR.split(name.toLowerCase(Locale.ROOT))) {
+                if (!word.isEmpty()) {
+                    words.add(word);
+                }
+            }
+            words.forEach(word -> trie.add(word, 1));
+            itemWords.put(itemId, words);
+        }
+
+        private int size() {
+            return itemWords.size();
+        }
+    }
+}
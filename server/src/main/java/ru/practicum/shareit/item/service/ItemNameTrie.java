@@ -0,0 +1,204 @@
+package ru.practicum.shareit.item.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+// Сжатое префиксное дерево (radix trie) слов из названий вещей.
+// Популярность слова - число доступных вещей, в названии которых оно встречается.
+// Каждый узел хранит top-K самых популярных слов своего поддерева, поэтому подсказка по префиксу
+// не обходит поддерево: достаточно спуститься по префиксу и вернуть готовый список.
+// top-K узла собирается из top-K детей и слова самого узла, при изменении слова пересчитывается только путь к нему.
+// Не потокобезопасен: доступ синхронизирует ItemNameSuggester
+class ItemNameTrie {
+    private static final Comparator<Node> BY_POPULARITY = Comparator.<Node>comparingInt(node -> node.count)
+            .reversed()
+            .thenComparing(node -> node.word);
+    private static final Node[] NO_NODES = new Node[0];
+
+    private final int topSize;
+    private final Node root = new Node("");
+
+    ItemNameTrie(int topSize) {
+        this.topSize = topSize;
+    }
+
+    // Изменяет популярность слова на delta; слово с нулевой популярностью в подсказки не попадает
+    void add(String word, int delta) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int position = 0;
+        while (position < word.length()) {
+            Node child = node.child(word.charAt(position));
+            if (child == null) {
+                child = new Node(word.substring(position));
+                node.addChild(child);
+                position = word.length();
+            } else {
+                int common = commonPrefix(child.label, word, position);
+                if (common < child.label.length()) {
+                    child = split(node, child, common);
+                }
+                position += common;
+            }
+            node = child;
+            path.add(node);
+        }
+
+        Node changed = node;
+        changed.word = word;
+        changed.count = Math.max(0, changed.count + delta);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node current = path.get(i);
+            if (i > 0 && current.count == 0 && current.children.length == 0) {
+                path.get(i - 1).removeChild(current);
+            } else if (delta > 0) {
+                raise(current, changed);
+            } else if (Arrays.asList(current.top).contains(changed)) {
+                updateTop(current);
+            }
+        }
+    }
+
+    // Самые популярные слова, начинающиеся с prefix
+    List<String> suggest(String prefix, int limit) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            Node child = node.child(prefix.charAt(position));
+            if (child == null) {
+                return Collections.emptyList();
+            }
+
+            int common = commonPrefix(child.label, prefix, position);
+            if (position + common < prefix.length() && common < child.label.length()) {
+                return Collections.emptyList();
+            }
+            position += common;
+            node = child;
+        }
+
+        Node[] top = node.top;
+        List<String> words = new ArrayList<>(Math.min(limit, top.length));
+        for (int i = 0; i < top.length && i < limit; i++) {
+            words.add(top[i].word);
+        }
+        return words;
+    }
+
+    int count(String word) {
+        Node node = root;
+        int position = 0;
+        while (position < word.length()) {
+            node = node.child(word.charAt(position));
+            if (node == null || !word.startsWith(node.label, position)) {
+                return 0;
+            }
+            position += node.label.length();
+        }
+        return node.count;
+    }
+
+    // Делит ребро child на два: общий с добавляемым словом префикс длины common и остаток
+    private Node split(Node parent, Node child, int common) {
+        Node middle = new Node(child.label.substring(0, common));
+        parent.removeChild(child);
+        child.label = child.label.substring(common);
+        middle.addChild(child);
+        middle.top = child.top;
+        parent.addChild(middle);
+        return middle;
+    }
+
+    // Популярность слова выросла: достаточно переставить или вставить его в уже готовый top-K
+    private void raise(Node node, Node changed) {
+        List<Node> top = new ArrayList<>(Arrays.asList(node.top));
+        if (!top.remove(changed) && top.size() == topSize && BY_POPULARITY.compare(changed, top.get(topSize - 1)) > 0) {
+            return;
+        }
+
+        int position = 0;
+        while (position < top.size() && BY_POPULARITY.compare(top.get(position), changed) < 0) {
+            position++;
+        }
+        top.add(position, changed);
+        node.top = top.subList(0, Math.min(topSize, top.size())).toArray(NO_NODES);
+    }
+
+    // Популярность слова из top-K упала: его место может занять слово из top-K любого ребёнка
+    private void updateTop(Node node) {
+        List<Node> candidates = new ArrayList<>();
+        if (node.count > 0) {
+            candidates.add(node);
+        }
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(BY_POPULARITY);
+        node.top = candidates.subList(0, Math.min(topSize, candidates.size())).toArray(NO_NODES);
+    }
+
+    private static int commonPrefix(String label, String word, int position) {
+        int length = Math.min(label.length(), word.length() - position);
+        int common = 0;
+        while (common < length && label.charAt(common) == word.charAt(position + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    private static final class Node {
+        private String label;
+        private String word;
+        private int count;
+        // Дети упорядочены по первому символу метки
+        private Node[] children = NO_NODES;
+        private Node[] top = NO_NODES;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char first) {
+            int index = indexOf(first);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private void addChild(Node child) {
+            int index = -indexOf(child.label.charAt(0)) - 1;
+            Node[] updated = new Node[children.length + 1];
+            System.arraycopy(children, 0, updated, 0, index);
+            updated[index] = child;
+            System.arraycopy(children, index, updated, index + 1, children.length - index);
+            children = updated;
+        }
+
+        private void removeChild(Node child) {
+            int index = indexOf(child.label.charAt(0));
+            Node[] updated = new Node[children.length - 1];
+            System.arraycopy(children, 0, updated, 0, index);
+            System.arraycopy(children, index + 1, updated, index, children.length - index - 1);
+            children = updated;
+        }
+
+        private int indexOf(char first) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char current = children[middle].label.charAt(0);
+                if (current < first) {
+                    low = middle + 1;
+                } else if (current > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -low - 1;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.model.dto.ItemDto;
+
+import java.util.List;
+
+// Поиск доступных вещей по тексту в названии и описании.
+// Реализация выбирается свойством shareit.item.search.engine
+public interface ItemSearchEngine {
+    List<ItemDto> search(String text, int from, int size);
+}
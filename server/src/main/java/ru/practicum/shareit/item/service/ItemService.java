@@ -14,6 +14,8 @@ public interface ItemService {
 
     List<ItemDto> searchAvailableItems(String text, int from, int size);
 
+    List<String> suggestItemNames(String prefix, int size);
+
     RespCommentDto createComment(Long userId, Long itemId, ReqCommentDto text);
 
     ItemDto  createItem(Long userId, ItemDto item);
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -9,13 +10,17 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInfo;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.IncorrectBookingException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemDetail;
 import ru.practicum.shareit.item.model.dto.ItemDto;
 import ru.practicum.shareit.item.model.dto.LongItemDto;
 import ru.practicum.shareit.item.model.dto.ReqCommentDto;
@@ -26,14 +31,15 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceService;
+import ru.practicum.shareit.utils.LongHashMap;
 import ru.practicum.shareit.utils.PageRequestFactory;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-import java.util.function.Function;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -45,78 +51,72 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
-
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemNameSuggester itemNameSuggester;
+    private final ItemDetailCache itemDetailCache;
+    private final UserExistenceService userExistenceService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Карточка из кэша - без запросов к БД.
+    // Иначе два запроса независимо от числа бронирований и комментариев:
+    // карточка с проверкой пользователя и вещи, затем комментарии с именами авторов
     @Override
     public LongItemDto getItemById(Long userId, Long itemId) {
-        checkIfUserExistsById(userId);
-        Item dbItem = checkIfItemExistsById(itemId);
-
-        Pageable pageForLastBooking = PageRequestFactory
-                .createPageRequest(0, 1, Sort.by(Sort.Direction.DESC, "start"));
-        Pageable pageForNextBooking = PageRequestFactory
-                .createPageRequest(0, 1, Sort.by(Sort.Direction.ASC, "start"));
-
-        List<Booking> lastBooking = bookingRepository.findByItemUserIdAndItemIdAndStatusAndStartBefore(
-                userId,
-                itemId,
-                Status.APPROVED,
-                LocalDateTime.now(),
-                pageForLastBooking);
+        LongItemDto cachedItem = itemDetailCache.get(userId, itemId);
+        if (cachedItem != null) {
+            checkIfUserExists(userId);
+            return cachedItem;
+        }
 
-        List<Booking> nextBooking = bookingRepository.findByItemUserIdAndItemIdAndStatusAndStartAfter(
-                userId,
-                itemId,
-                Status.APPROVED,
-                LocalDateTime.now(),
-                pageForNextBooking);
+        long cacheGeneration = itemDetailCache.generation();
+        ItemDetail dbItem = itemRepository.findItemDetail(userId, itemId, Status.APPROVED.name(), LocalDateTime.now());
+        if (dbItem.getUserId() == null) {
+            throw new NotFoundException(String.format("Пользователя с таким id=%d нет", + userId));
+        }
+        if (dbItem.getId() == null) {
+            throw new NotFoundException(String.format("Вещи с таким id=%d нет", + itemId));
+        }
 
-        List<Comment> dbComments = commentRepository.findByItemId(itemId);
-        List<RespCommentDto> commentDtos = CommentMapper.buildCommentDtoList(dbComments);
+        List<RespCommentDto> commentDtos = commentRepository.findCommentDtosByItemId(itemId);
         log.info("GET запрос в ItemController обработан успешно. " +
-                "Метод getItemById(), itemId={}, Item={}", itemId, dbItem);
+                "Метод getItemById(), itemId={}, Item={}", itemId, dbItem.getName());
+
+        LongItemDto itemDto = ItemMapper.buildLongItemDto(dbItem, commentDtos);
+        itemDetailCache.put(userId, dbItem.getOwnerId(), itemDto, dbItem.getNextBookingStart(), cacheGeneration);
 
-        return ItemMapper.buildLongItemDto(dbItem, lastBooking, nextBooking, commentDtos);
+        return itemDto;
     }
 
     @Override
     public List<LongItemDto> getAllItemsByUser(Long userId, int from, int size) {
-        checkIfUserExistsById(userId);
+        checkIfUserExists(userId);
 
         Pageable page = PageRequestFactory.createPageRequest(from, size, Sort.by("id"));
-        Map<Long, Item> dbItems = itemRepository.findByUserId(userId, page)
-                .stream()
-                .collect(Collectors.toMap(Item::getId, Function.identity()));
-
-        // Возвращаю все APPROVED last и next bookings пользователя, чтобы избежать N+1
-        // Упаковываю их в Map с поведением first-win, чтобы убрать лишние Item, которые
-        // могут быть забронированы еще раньше или ещё позже.
-        // Map для того, чтобы сделать позже contains(Item) вместо for each. Так быстрее.
-        Map<Item, Booking> last = bookingRepository
-                .findByItemUserIdAndStatusAndStartBefore(
-                        userId,
-                        Status.APPROVED,
-                        LocalDateTime.now(),
-                        Sort.by(Sort.Direction.DESC, "start"))
-                .stream()
-                .collect(Collectors.toMap(Booking::getItem, Function.identity(), (existing, replacement) -> existing));
-
-        Map<Item, Booking> next = bookingRepository
-                .findByItemUserIdAndStatusAndStartAfter(
-                        userId,
-                        Status.APPROVED,
-                        LocalDateTime.now(),
-                        Sort.by(Sort.Direction.ASC, "start"))
-                .stream()
-                .collect(Collectors.toMap(Booking::getItem, Function.identity(), (existing, replacement) -> existing));
-
-        Map<Item, List<Comment>> dbComments = commentRepository.findByItemIdIn(dbItems.keySet())
-                .stream()
-                .collect(Collectors.groupingBy(Comment::getItem));
+        List<Item> dbItems = itemRepository.findByUserId(userId, page);
+        Set<Long> itemIds = dbItems.stream()
+                .map(Item::getId)
+                .collect(Collectors.toSet());
+
+        // Последнее и следующее APPROVED бронирование только для вещей страницы - одним запросом, без N+1.
+        // Map по id вещи, чтобы сделать позже get(itemId) вместо for each. Так быстрее.
+        // Ключ - long, а не Item: hashCode() сущности одинаков у всех вещей, и HashMap вырождается в список
+        LongHashMap<BookingInfo> last = new LongHashMap<>(dbItems.size());
+        LongHashMap<BookingInfo> next = new LongHashMap<>(dbItems.size());
+        if (!itemIds.isEmpty()) {
+            bookingRepository.findNearestBookings(itemIds, Status.APPROVED.name(), LocalDateTime.now())
+                    .forEach(booking -> (booking.getPast() ? last : next)
+                            .put(booking.getItemId(), new BookingInfo(booking.getId(), booking.getBookerId())));
+        }
+
+        LongHashMap<List<Comment>> dbComments = new LongHashMap<>(dbItems.size());
+        for (Comment comment : commentRepository.findByItemIdIn(itemIds)) {
+            dbComments.computeIfAbsent(comment.getItem().getId(), itemId -> new ArrayList<>()).add(comment);
+        }
 
         log.info("GET запрос в ItemController обработан успешно. " +
                 "Метод getItemsByUser(), userId={}, itemsByUser={}", userId, dbItems);
 
-        return ItemMapper.buildLongItemDtoList(new ArrayList<>(dbItems.values()), last, next, dbComments);
+        return ItemMapper.buildLongItemDtoList(dbItems, last, next, dbComments);
     }
 
     @Override
@@ -126,12 +126,24 @@ public class ItemServiceImpl implements ItemService {
             return new ArrayList<>();
         }
 
-        Pageable page = PageRequestFactory.createPageRequest(from, size, Sort.by("id"));
-        List<Item> searchItems = itemRepository.findByText(text, page);
+        List<ItemDto> searchItems = itemSearchEngine.search(text, from, size);
         log.info("GET запрос в ItemController обработан успешно. " +
                 "Метод searchAvailableItems(), text={}, searchItems={}", text, searchItems);
 
-        return ItemMapper.buildItemDtoList(searchItems);
+        return searchItems;
+    }
+
+    @Override
+    public List<String> suggestItemNames(String prefix, int size) {
+        if (size <= 0 || size > ItemNameSuggester.MAX_SUGGESTIONS) {
+            throw new IncorrectBookingException(String.format("Количество подсказок size=%d должно быть от 1 до %d",
+                    size, ItemNameSuggester.MAX_SUGGESTIONS));
+        }
+        List<String> suggestions = itemNameSuggester.suggest(prefix, size);
+        log.info("GET запрос в ItemController обработан успешно. " +
+                "Метод suggestItemNames(), prefix={}, suggestions={}", prefix, suggestions);
+
+        return suggestions;
     }
 
     @Transactional
@@ -155,6 +167,7 @@ public class ItemServiceImpl implements ItemService {
 
         Comment comment = CommentMapper.buildComment(text, dbItem, dbUser);
         Comment dbComment = commentRepository.save(comment);
+        eventPublisher.publishEvent(new CommentCreatedEvent(itemId));
         log.info("POST запрос в ItemController обработан успешно. Метод createComment(), userId={}, itemId={}, text={} ", userId, itemId, text);
 
         return CommentMapper.buildCommentDto(dbComment);
@@ -175,7 +188,10 @@ public class ItemServiceImpl implements ItemService {
         log.info("POST запрос в ItemController обработан успешно. " +
                 "Метод createItem(), userId={}, itemDto={}, createItem={}", userId, itemDto, createItem);
 
-        return ItemMapper.buildItemDto(createItem);
+        ItemDto createItemDto = ItemMapper.buildItemDto(createItem);
+        eventPublisher.publishEvent(new ItemSavedEvent(createItemDto));
+
+        return createItemDto;
     }
 
     @Transactional
@@ -210,7 +226,16 @@ public class ItemServiceImpl implements ItemService {
         log.info("PATCH запрос в ItemController обработан успешно. " +
                 "Метод updateItem(), userId={}, itemId={}, updateItem={}", userId, itemId, updateItem);
 
-        return ItemMapper.buildItemDto(updateItem);
+        ItemDto updateItemDto = ItemMapper.buildItemDto(updateItem);
+        eventPublisher.publishEvent(new ItemSavedEvent(updateItemDto));
+
+        return updateItemDto;
+    }
+
+    private void checkIfUserExists(Long userId) {
+        if (!userExistenceService.exists(userId)) {
+            throw new NotFoundException(String.format("Пользователя с таким id=%d нет", userId));
+        }
     }
 
     private User checkIfUserExistsById(Long userId) {
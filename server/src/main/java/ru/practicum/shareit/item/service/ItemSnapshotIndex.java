@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Индекс вещей в памяти, который строится по снимку БД после старта приложения.
+// Снимок читается в новый экземпляр без блокировки, поэтому запросы и изменения вещей построение не ждут.
+// Изменения, пришедшие за время построения, копятся и перед подменой применяются к новому экземпляру
+// в порядке поступления. Изменение, уже попавшее в снимок, при повторе лишь записывает вещь заново
+class ItemSnapshotIndex<T> {
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final Supplier<T> factory;
+    // Сам индекс не потокобезопасен: запросы выполняются под блокировкой чтения, изменения - под блокировкой записи
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private T index;
+    // Изменения, пришедшие во время построения; null, если построение не идёт
+    private List<Consumer<T>> pending;
+    private volatile boolean loaded;
+
+    ItemSnapshotIndex(Supplier<T> factory) {
+        this.factory = factory;
+        this.index = factory.get();
+    }
+
+    void load(ItemRepository itemRepository, BiConsumer<T, Item> put) {
+        lock.writeLock().lock();
+        try {
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        T fresh = factory.get();
+        try {
+            long lastId = 0;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findByIdGreaterThan(lastId, PageRequest.of(0, LOAD_BATCH_SIZE, Sort.by("id")));
+                for (Item item : batch) {
+                    put.accept(fresh, item);
+                    lastId = item.getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            // Построение не удалось: накопленные изменения не теряются, а применяются к прежнему экземпляру
+            lock.writeLock().lock();
+            try {
+                pending.forEach(change -> change.accept(index));
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pending.forEach(change -> change.accept(fresh));
+            pending = null;
+            index = fresh;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void update(Consumer<T> change) {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(change);
+            } else {
+                change.accept(index);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    <R> R read(Function<T, R> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean isLoaded() {
+        return loaded;
+    }
+}
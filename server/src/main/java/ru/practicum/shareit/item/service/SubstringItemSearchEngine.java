@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.utils.PageRequestFactory;
+
+import java.util.List;
+
+// Поиск подстроки без учёта регистра: работает в любой БД, но всегда сканирует таблицу items
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.engine", havingValue = "substring", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SubstringItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        Pageable page = PageRequestFactory.createPageRequest(from, size, Sort.by("id"));
+        return ItemMapper.buildItemDtoList(itemRepository.findByText(text, page));
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.item.service;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.utils.LongHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+
+// Инвертированный индекс доступных вещей: триграмма названия или описания -> id вещей (RoaringBitmap).
+// Поиск повторяет семантику ItemRepository.findByText: подстрока без учёта регистра, порядок по id.
+// Триграммы только отбирают кандидатов, совпадение проверяется по самому тексту.
+// Не потокобезопасен: доступ синхронизирует ItemSnapshotIndex
+class TrigramIndex {
+    private static final int GRAM = 3;
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final LongHashMap<RoaringBitmap> postings = new LongHashMap<>();
+    private final LongHashMap<Document> documents = new LongHashMap<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+
+    // Добавляет или заменяет вещь; недоступная вещь из индекса удаляется
+    void put(ItemDto item) {
+        remove(item.getId());
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+
+        int id = documentId(item.getId());
+        Document document = new Document(item);
+        documents.put(id, document);
+        all.add(id);
+        document.forEachTrigram(trigram -> postings.computeIfAbsent(trigram, key -> new RoaringBitmap()).add(id));
+    }
+
+    void remove(long itemId) {
+        Document document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+
+        int id = documentId(itemId);
+        all.remove(id);
+        document.forEachTrigram(trigram -> {
+            RoaringBitmap posting = postings.get(trigram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        });
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    List<ItemDto> search(String text, long offset, int limit) {
+        String query = text.toUpperCase(Locale.ROOT);
+        List<ItemDto> items = new ArrayList<>();
+        long skipped = 0;
+
+        PeekableIntIterator candidates = candidates(query).getIntIterator();
+        while (candidates.hasNext() && items.size() < limit) {
+            Document document = documents.get(candidates.next());
+            if (document.contains(query)) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    items.add(document.item);
+                }
+            }
+        }
+        return items;
+    }
+
+    // Вещи, содержащие все триграммы запроса. Запрос короче триграммы проверяется по всем вещам
+    private RoaringBitmap candidates(String query) {
+        if (query.length() < GRAM) {
+            return all;
+        }
+
+        RoaringBitmap[] lists = new RoaringBitmap[query.length() - GRAM + 1];
+        for (int i = 0; i < lists.length; i++) {
+            RoaringBitmap posting = postings.get(trigram(query, i));
+            if (posting == null) {
+                return EMPTY;
+            }
+            lists[i] = posting;
+        }
+
+        // Пересечение начинается с самого короткого списка
+        Arrays.sort(lists, Comparator.comparingInt(RoaringBitmap::getCardinality));
+        RoaringBitmap result = lists[0].clone();
+        for (int i = 1; i < lists.length && !result.isEmpty(); i++) {
+            result.and(lists[i]);
+        }
+        return result;
+    }
+
+    // RoaringBitmap хранит 32-битные числа: id, не помещающийся в int, не должен молча совпасть с чужим
+    private static int documentId(long itemId) {
+        return Math.toIntExact(itemId);
+    }
+
+    // Три символа UTF-16 в одном long
+    private static long trigram(String text, int index) {
+        return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16) | text.charAt(index + 2);
+    }
+
+    private static final class Document {
+        private final ItemDto item;
+        private final String name;
+        private final String description;
+
+        private Document(ItemDto item) {
+            this.item = item;
+            this.name = item.getName() == null ? "" : item.getName().toUpperCase(Locale.ROOT);
+            this.description = item.getDescription() == null ? "" : item.getDescription().toUpperCase(Locale.ROOT);
+        }
+
+        private boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        private void forEachTrigram(LongConsumer consumer) {
+            for (int i = 0; i + GRAM <= name.length(); i++) {
+                consumer.accept(trigram(name, i));
+            }
+            for (int i = 0; i + GRAM <= description.length(); i++) {
+                consumer.accept(trigram(description, i));
+            }
+        }
+    }
+}
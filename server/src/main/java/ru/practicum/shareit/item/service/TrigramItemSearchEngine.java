@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.utils.PageRequestFactory;
+
+import java.util.List;
+
+// Поиск по триграммному индексу в памяти без обращения к БД.
+// Индекс строится после старта приложения, затем обновляется после коммита создания или изменения вещи.
+// До окончания построения поиск выполняется запросом к БД
+@Component
+@ConditionalOnProperty(name = "shareit.item.search.engine", havingValue = "trigram")
+@RequiredArgsConstructor
+@Slf4j
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final ItemSnapshotIndex<TrigramIndex> index = new ItemSnapshotIndex<>(TrigramIndex::new);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        index.load(itemRepository, (trigrams, item) -> trigrams.put(ItemMapper.buildItemDto(item)));
+        log.info("Триграммный индекс вещей построен: доступных вещей={}", index.read(TrigramIndex::size));
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        index.update(trigrams -> trigrams.put(event.getItem()));
+    }
+
+    @TransactionalEventListener
+    public void onItemDeleted(ItemDeletedEvent event) {
+        index.update(trigrams -> trigrams.remove(event.getItemId()));
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        Pageable page = PageRequestFactory.createPageRequest(from, size, Sort.by("id"));
+        if (!index.isLoaded()) {
+            return ItemMapper.buildItemDtoList(itemRepository.findByText(text, page));
+        }
+
+        return index.read(trigrams -> trigrams.search(text, page.getOffset(), page.getPageSize()));
+    }
+}
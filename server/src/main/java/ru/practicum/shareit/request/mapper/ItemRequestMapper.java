@@ -1,14 +1,17 @@
 package ru.practicum.shareit.request.mapper;
 
 import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.dto.ItemDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.model.dto.ReqItemRequestDto;
 import ru.practicum.shareit.request.model.dto.RespItemRequestDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.LongHashMap;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class ItemRequestMapper {
 
@@ -21,17 +24,29 @@ public class ItemRequestMapper {
     }
 
     public static RespItemRequestDto buildItemRequestDto(ItemRequest itemRequest) {
+        return buildItemRequestDto(itemRequest, ItemMapper.buildItemDtoList(itemRequest.getItems()));
+    }
+
+    public static RespItemRequestDto buildItemRequestDto(ItemRequest itemRequest, List<ItemDto> items) {
         return RespItemRequestDto.builder()
                 .id(itemRequest.getId())
                 .description(itemRequest.getDescription())
                 .created(itemRequest.getCreated())
-                .items(ItemMapper.buildItemDtoList(itemRequest.getItems()))
+                .items(items)
                 .build();
     }
 
-    public static List<RespItemRequestDto> buildItemRequestDto(List<ItemRequest> itemRequest) {
-        return itemRequest.stream()
-                .map(ItemRequestMapper::buildItemRequestDto)
-                .collect(Collectors.toList());
+    // items - вещи-ответы, сгруппированные по id запроса: ленивая коллекция getItems() здесь не читается,
+    // иначе на каждый запрос списка выполнялся бы отдельный select
+    public static List<RespItemRequestDto> buildItemRequestDto(List<ItemRequest> itemRequests,
+                                                               LongHashMap<List<ItemDto>> items) {
+        List<RespItemRequestDto> itemRequestDtos = new ArrayList<>(itemRequests.size());
+
+        for (ItemRequest itemRequest : itemRequests) {
+            itemRequestDtos.add(buildItemRequestDto(itemRequest,
+                    items.getOrDefault(itemRequest.getId(), Collections.emptyList())));
+        }
+
+        return itemRequestDtos;
     }
 }
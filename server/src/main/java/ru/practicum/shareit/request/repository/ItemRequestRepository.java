@@ -2,6 +2,7 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
@@ -12,4 +13,7 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
      List<ItemRequest> findByCreatorIdOrderByCreatedDesc(Long userId);
 
      List<ItemRequest> findByCreatorIdNot(Long userId, Pageable page);
+
+     @Query("select req.id from ItemRequest as req where req.creator.id = ?1 and req.id > ?2 order by req.id")
+     List<Long> findIdsByCreatorId(Long userId, Long lastId, Pageable page);
 }
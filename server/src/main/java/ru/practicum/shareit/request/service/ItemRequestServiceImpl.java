@@ -8,16 +8,24 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.model.dto.ReqItemRequestDto;
 import ru.practicum.shareit.request.model.dto.RespItemRequestDto;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceService;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.utils.LongHashMap;
 import ru.practicum.shareit.utils.PageRequestFactory;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -27,23 +35,27 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
 
+    private final ItemRepository itemRepository;
+
     private final UserService userService;
 
+    private final UserExistenceService userExistenceService;
+
     @Transactional(readOnly = true)
     @Override
     public List<RespItemRequestDto> getUserRequests(Long userId) {
-        userService.getUserById(userId);
+        checkIfUserExists(userId);
 
         List<ItemRequest> itemRequests = itemRequestRepository.findByCreatorIdOrderByCreatedDesc(userId);
         log.info("GET запрос в ItemRequestController обработан успешно. Метод getUserRequests(), userId={}", userId);
 
-        return ItemRequestMapper.buildItemRequestDto(itemRequests);
+        return buildItemRequestDtos(itemRequests);
     }
 
     @Transactional(readOnly = true)
     @Override
     public RespItemRequestDto getRequestByReqId(Long userId, Long requestId) {
-        userService.getUserById(userId);
+        checkIfUserExists(userId);
 
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException(String.format("Запроса с таким id=%d нет", requestId)));
@@ -56,7 +68,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Transactional(readOnly = true)
     @Override
     public List<RespItemRequestDto> getRequestsFromOthers(Long userId, int from, int size) {
-        userService.getUserById(userId);
+        checkIfUserExists(userId);
 
         Pageable page = PageRequestFactory
                 .createPageRequest(from, size, Sort.by(Sort.Direction.DESC, "created"));
@@ -65,7 +77,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         log.info("GET запрос в ItemRequestController обработан успешно. " +
                 "Метод getRequestsFromOthers(), userId={}", userId);
 
-        return ItemRequestMapper.buildItemRequestDto(itemRequests);
+        return buildItemRequestDtos(itemRequests);
     }
 
     @Transactional
@@ -81,4 +93,24 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
         return ItemRequestMapper.buildItemRequestDto(createItemRequest);
     }
+
+    // Вещи-ответы для всех запросов страницы - одним запросом с IN, без select на каждый запрос
+    private List<RespItemRequestDto> buildItemRequestDtos(List<ItemRequest> itemRequests) {
+        LongHashMap<List<ItemDto>> items = new LongHashMap<>(itemRequests.size());
+        if (!itemRequests.isEmpty()) {
+            List<Long> requestIds = itemRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
+            for (Item item : itemRepository.findByRequestIdInOrderById(requestIds)) {
+                items.computeIfAbsent(item.getRequest().getId(), requestId -> new ArrayList<>())
+                        .add(ItemMapper.buildItemDto(item));
+            }
+        }
+
+        return ItemRequestMapper.buildItemRequestDto(itemRequests, items);
+    }
+
+    private void checkIfUserExists(Long userId) {
+        if (!userExistenceService.exists(userId)) {
+            throw new NotFoundException(String.format("Пользователя с таким id=%d нет", userId));
+        }
+    }
 }
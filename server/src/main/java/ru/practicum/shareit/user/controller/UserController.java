@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.dto.RespUserBatchDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
@@ -29,12 +30,24 @@ public class UserController {
         return service.getAllUsers(from, size);
     }
 
+    @GetMapping(params = "ids")
+    public List<User> getUsersByIds(@RequestParam List<Long> ids) {
+        log.info("Поступил GET запрос в UserController: метод getUsersByIds(), ids={}", ids);
+        return service.getUsersByIds(ids);
+    }
+
     @PostMapping
     public User createUser(@RequestBody User user) {
         log.info("Поступил POST запрос в UserController: метод createUser(), User={}", user);
         return service.createUser(user);
     }
 
+    @PostMapping("/batch")
+    public RespUserBatchDto createUsers(@RequestBody List<User> users) {
+        log.info("Поступил POST запрос в UserController: метод createUsers(), пользователей={}", users.size());
+        return service.createUsers(users);
+    }
+
     @PatchMapping("/{userId}")
     public User updateUser(@PathVariable Long userId,
                            @RequestBody User user) {
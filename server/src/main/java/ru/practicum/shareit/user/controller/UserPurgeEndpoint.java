@@ -0,0 +1,21 @@
+package ru.practicum.shareit.user.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.model.dto.UserPurgeProgressDto;
+import ru.practicum.shareit.user.service.UserPurgeService;
+
+// Ход фоновой очистки удалённых пользователей: GET /actuator/userpurge
+@Component
+@Endpoint(id = "userpurge")
+@RequiredArgsConstructor
+public class UserPurgeEndpoint {
+    private final UserPurgeService userPurgeService;
+
+    @ReadOperation
+    public UserPurgeProgressDto progress() {
+        return userPurgeService.getProgress();
+    }
+}
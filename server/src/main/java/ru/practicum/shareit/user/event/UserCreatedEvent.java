@@ -0,0 +1,11 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Публикуется в транзакции создания пользователя
+@RequiredArgsConstructor
+@Getter
+public class UserCreatedEvent {
+    private final Long userId;
+}
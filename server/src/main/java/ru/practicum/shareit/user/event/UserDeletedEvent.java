@@ -0,0 +1,11 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Публикуется в транзакции удаления пользователя
+@RequiredArgsConstructor
+@Getter
+public class UserDeletedEvent {
+    private final Long userId;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.user.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Комментарий или бронирование, удаляемые при очистке данных пользователя, и вещь, к которой они относятся
+@RequiredArgsConstructor
+@Getter
+public class PurgeRow {
+    private final Long id;
+    private final Long itemId;
+}
@@ -5,6 +5,9 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Where;
 import ru.practicum.shareit.item.model.Item;
 
 import javax.persistence.*;
@@ -14,6 +17,10 @@ import java.util.Set;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
+// Мягко удалённые пользователи ждут фоновой очистки (UserPurgeService) и не видны приложению
+@Where(clause = "deleted = false")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+// Результат POST /users/batch: созданные пользователи в порядке запроса и строки, которые создать не удалось
+@AllArgsConstructor
+@Getter
+public class RespUserBatchDto {
+    private List<User> created;
+    private List<UserBatchErrorDto> errors;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+// Пользователь из пакета, который не был создан. index - позиция в запросе, начиная с 0
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class UserBatchErrorDto {
+    private int index;
+    private String email;
+    private String error;
+}
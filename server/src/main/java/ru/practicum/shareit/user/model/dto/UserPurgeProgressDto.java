@@ -0,0 +1,22 @@
+package ru.practicum.shareit.user.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Ход фоновой очистки: счётчики удалённых строк - с момента старта сервера.
+// currentUserId - чьи данные удаляются сейчас, null - очистка не выполняется
+@AllArgsConstructor
+@Getter
+public class UserPurgeProgressDto {
+    private long pendingUsers;
+    private Long currentUserId;
+    private long purgedUsers;
+    private long deletedComments;
+    private long deletedBookings;
+    private long deletedItems;
+    private long deletedRequests;
+    private LocalDateTime lastRunStarted;
+    private LocalDateTime lastRunFinished;
+}
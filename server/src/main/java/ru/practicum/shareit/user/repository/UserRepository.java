@@ -1,12 +1,31 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     Optional<User> findByEmailContainingIgnoreCase(String email);
+
+    @Query("select u.id from User as u")
+    List<Long> findAllIds();
+
+    // SQL, а не JPQL: email мягко удалённого пользователя занят до очистки
+    @Query(value = "select email from users where email in :emails", nativeQuery = true)
+    List<String> findEmailsByEmailIn(Collection<String> emails);
+
+    List<User> findByIdInOrderById(Collection<Long> ids);
+
+    @Query(value = "select id from users where deleted = true and id > ?1 order by id", nativeQuery = true)
+    List<Long> findMarkedIds(Long lastId, Pageable page);
+
+    @Query(value = "select count(*) from users where deleted = true", nativeQuery = true)
+    long countMarked();
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.user.repository;
+
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+// Массовое создание пользователей: id users генерирует IDENTITY-столбец,
+// поэтому Hibernate выполняет вставки по одной. Здесь строки отправляются JDBC-пакетами.
+// Мягкое удаление: столбец deleted не отображается в User, поэтому изменяется SQL-запросом
+public interface UserRepositoryCustom {
+    // Вставляет пользователей и проставляет им сгенерированные БД id
+    void insertAll(List<User> users);
+
+    // false - пользователя нет или он уже удалён
+    boolean markDeleted(Long userId);
+
+    // Удаляет строку мягко удалённого пользователя, когда его данных уже не осталось
+    boolean deleteMarked(Long userId);
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.user.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class UserRepositoryImpl implements UserRepositoryCustom {
+    private static final int BATCH_SIZE = 500;
+    private static final String INSERT_USER = "insert into users (name, email) values (?, ?)";
+    private static final String MARK_DELETED = "update users set deleted = true where id = :userId and deleted = false";
+    private static final String DELETE_MARKED = "delete from users where id = :userId and deleted = true";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public void insertAll(List<User> users) {
+        // Соединение текущей транзакции: вставка откатится вместе с ней
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_USER, new String[]{"id"})) {
+                for (int start = 0; start < users.size(); start += BATCH_SIZE) {
+                    List<User> batch = users.subList(start, Math.min(start + BATCH_SIZE, users.size()));
+                    for (User user : batch) {
+                        statement.setString(1, user.getName());
+                        statement.setString(2, user.getEmail());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    setGeneratedIds(statement, batch);
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean markDeleted(Long userId) {
+        return executeUpdate(MARK_DELETED, userId) > 0;
+    }
+
+    @Override
+    public boolean deleteMarked(Long userId) {
+        return executeUpdate(DELETE_MARKED, userId) > 0;
+    }
+
+    // Без указания изменяемой сущности Hibernate после SQL-запроса очистил бы все регионы кэша второго уровня,
+    // а не только users
+    private int executeUpdate(String sql, Long userId) {
+        return entityManager.createNativeQuery(sql)
+                .setParameter("userId", userId)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(User.class)
+                .executeUpdate();
+    }
+
+    // Ключи возвращаются в порядке строк пакета
+    private void setGeneratedIds(PreparedStatement statement, List<User> batch) throws SQLException {
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            for (User user : batch) {
+                if (!keys.next()) {
+                    throw new SQLException("БД вернула меньше id, чем было вставлено пользователей");
+                }
+                user.setId(keys.getLong(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.user.event.UserCreatedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Проверка X-Sharer-User-Id без загрузки User: id существующих пользователей хранятся в сжатом битовом множестве.
+// Множество строится после старта приложения и обновляется после коммита создания или удаления пользователя.
+// Промах перепроверяется в БД: пользователя могли создать через другой экземпляр сервера.
+// Удаление на другом экземпляре отсюда не видно - последующие запросы к БД такого пользователя не найдут
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserExistenceService {
+    private final UserRepository userRepository;
+    private final Roaring64Bitmap userIds = new Roaring64Bitmap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+    // Число обработанных удалений: промах, проверенный в БД до удаления, не должен вернуть id в множество
+    private long deletions;
+
+    // Создания и удаления ждут окончания построения: иначе снимок из БД мог бы перезаписать более новые изменения
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            userRepository.findAllIds().forEach(userIds::addLong);
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Множество id пользователей построено: пользователей={}", userIds.getLongCardinality());
+    }
+
+    public boolean exists(Long userId) {
+        if (loaded) {
+            lock.readLock().lock();
+            try {
+                if (userIds.contains(userId)) {
+                    return true;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        long deletionsBeforeCheck = deletions();
+        if (!userRepository.existsById(userId)) {
+            return false;
+        }
+        if (loaded) {
+            addIfNotDeletedSince(userId, deletionsBeforeCheck);
+        }
+        return true;
+    }
+
+    @TransactionalEventListener
+    public void onUserCreated(UserCreatedEvent event) {
+        add(event.getUserId());
+    }
+
+    @TransactionalEventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            userIds.removeLong(event.getUserId());
+            deletions++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long deletions() {
+        lock.readLock().lock();
+        try {
+            return deletions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Если после проверки в БД удаление успело закоммититься, строка могла быть прочитана до него:
+    // такой id не добавляется, следующий промах снова проверит БД
+    private void addIfNotDeletedSince(Long userId, long deletionsBeforeCheck) {
+        lock.writeLock().lock();
+        try {
+            if (deletions == deletionsBeforeCheck) {
+                userIds.addLong(userId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Long userId) {
+        lock.writeLock().lock();
+        try {
+            userIds.addLong(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+// Период запуска задаётся shareit.user.purge.delay (ISO-8601, например PT1M) и читается @Scheduled
+@ConfigurationProperties(prefix = "shareit.user.purge")
+@Getter
+@Setter
+public class UserPurgeProperties {
+    private boolean enabled = true;
+    // Строк в одной транзакции удаления: чем меньше, тем короче блокировки строк bookings
+    private int batchSize = 500;
+}
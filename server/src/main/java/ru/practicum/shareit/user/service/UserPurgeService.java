@@ -0,0 +1,173 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.event.BookingDeletedEvent;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.event.CommentDeletedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.PurgeRow;
+import ru.practicum.shareit.user.model.dto.UserPurgeProgressDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+// Фоновая очистка мягко удалённых пользователей. Удаляются комментарии и бронирования пользователя и его вещей,
+// затем вещи и запросы; чужие вещи, созданные в ответ на его запросы, отвязываются от запросов.
+// Строки выбираются пакетами по batchSize в порядке id (keyset, без OFFSET), каждый пакет удаляется
+// в своей короткой транзакции: блокировки строк bookings не держатся дольше одного пакета.
+// Если за время очистки к вещам пользователя добавили бронирование или комментарий, удаление вещи нарушит
+// внешний ключ: транзакция пакета откатится, а пользователь будет дочищен при следующем запуске
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserPurgeService {
+    private final UserRepository userRepository;
+    private final CommentRepository commentRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserPurgeProperties properties;
+
+    private final AtomicLong purgedUsers = new AtomicLong();
+    private final AtomicLong deletedComments = new AtomicLong();
+    private final AtomicLong deletedBookings = new AtomicLong();
+    private final AtomicLong deletedItems = new AtomicLong();
+    private final AtomicLong deletedRequests = new AtomicLong();
+    private volatile Long currentUserId;
+    private volatile LocalDateTime lastRunStarted;
+    private volatile LocalDateTime lastRunFinished;
+
+    @Scheduled(fixedDelayString = "${shareit.user.purge.delay:PT1M}")
+    public void purgeOnSchedule() {
+        if (properties.isEnabled()) {
+            purge();
+        }
+    }
+
+    // Очищает всех пользователей, мягко удалённых к моменту запуска
+    public void purge() {
+        lastRunStarted = LocalDateTime.now();
+        long lastUserId = 0;
+        List<Long> userIds;
+        do {
+            userIds = userRepository.findMarkedIds(lastUserId, page());
+            for (Long userId : userIds) {
+                purgeUser(userId);
+                lastUserId = userId;
+            }
+        } while (userIds.size() == properties.getBatchSize());
+        currentUserId = null;
+        lastRunFinished = LocalDateTime.now();
+    }
+
+    public UserPurgeProgressDto getProgress() {
+        return new UserPurgeProgressDto(userRepository.countMarked(), currentUserId, purgedUsers.get(),
+                deletedComments.get(), deletedBookings.get(), deletedItems.get(), deletedRequests.get(),
+                lastRunStarted, lastRunFinished);
+    }
+
+    private void purgeUser(Long userId) {
+        currentUserId = userId;
+        try {
+            long comments = deleteInBatches(lastId -> commentRepository.findPurgeRows(userId, lastId, page()),
+                    PurgeRow::getId, this::deleteComments);
+            long bookings = deleteInBatches(lastId -> bookingRepository.findPurgeRows(userId, lastId, page()),
+                    PurgeRow::getId, this::deleteBookings);
+            deleteInBatches(lastId -> itemRepository.findAnswersToRequestsOf(userId, lastId, page()),
+                    Item::getId, this::unlinkFromRequests);
+            long items = deleteInBatches(lastId -> itemRepository.findIdsByUserId(userId, lastId, page()),
+                    Function.identity(), this::deleteItems);
+            long requests = deleteInBatches(lastId -> itemRequestRepository.findIdsByCreatorId(userId, lastId, page()),
+                    Function.identity(), this::deleteRequests);
+            transactionTemplate.executeWithoutResult(status -> userRepository.deleteMarked(userId));
+
+            purgedUsers.incrementAndGet();
+            log.info("Данные удалённого пользователя id={} очищены: комментариев={}, бронирований={}, вещей={}, " +
+                    "запросов={}", userId, comments, bookings, items, requests);
+        } catch (RuntimeException e) {
+            log.warn("Очистка данных удалённого пользователя id={} не завершена, будет повторена при следующем " +
+                    "запуске: {}", userId, e.getMessage());
+        }
+    }
+
+    // Выбирает и удаляет строки пакетами; next - следующий пакет после id последней обработанной строки
+    private <T> long deleteInBatches(LongFunction<List<T>> next, Function<T, Long> idOf, Consumer<List<T>> delete) {
+        long total = 0;
+        long lastId = 0;
+        List<T> batch;
+        do {
+            long from = lastId;
+            batch = transactionTemplate.execute(status -> {
+                List<T> rows = next.apply(from);
+                if (!rows.isEmpty()) {
+                    delete.accept(rows);
+                }
+                return rows;
+            });
+            if (!batch.isEmpty()) {
+                lastId = idOf.apply(batch.get(batch.size() - 1));
+            }
+            total += batch.size();
+        } while (batch.size() == properties.getBatchSize());
+        return total;
+    }
+
+    private void deleteComments(List<PurgeRow> rows) {
+        commentRepository.deleteAllByIdInBatch(rows.stream().map(PurgeRow::getId).collect(Collectors.toList()));
+        rows.stream()
+                .map(PurgeRow::getItemId)
+                .distinct()
+                .forEach(itemId -> eventPublisher.publishEvent(new CommentDeletedEvent(itemId)));
+        deletedComments.addAndGet(rows.size());
+    }
+
+    private void deleteBookings(List<PurgeRow> rows) {
+        bookingRepository.deleteAllByIdInBatch(rows.stream().map(PurgeRow::getId).collect(Collectors.toList()));
+        rows.forEach(row -> eventPublisher.publishEvent(new BookingDeletedEvent(row.getId(), row.getItemId())));
+        deletedBookings.addAndGet(rows.size());
+    }
+
+    // Изменения сохраняются при коммите транзакции пакета
+    private void unlinkFromRequests(List<Item> answers) {
+        for (Item item : answers) {
+            item.setRequest(null);
+            eventPublisher.publishEvent(new ItemSavedEvent(ItemMapper.buildItemDto(item)));
+        }
+    }
+
+    private void deleteItems(List<Long> itemIds) {
+        itemRepository.deleteAllByIdInBatch(itemIds);
+        itemIds.forEach(itemId -> eventPublisher.publishEvent(new ItemDeletedEvent(itemId)));
+        deletedItems.addAndGet(itemIds.size());
+    }
+
+    private void deleteRequests(List<Long> requestIds) {
+        itemRequestRepository.deleteAllByIdInBatch(requestIds);
+        deletedRequests.addAndGet(requestIds.size());
+    }
+
+    private Pageable page() {
+        return PageRequest.of(0, properties.getBatchSize());
+    }
+}
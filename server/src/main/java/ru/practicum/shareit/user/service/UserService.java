@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.dto.RespUserBatchDto;
 
 import java.util.List;
 
@@ -9,8 +10,12 @@ public interface UserService {
 
     List<User> getAllUsers(int from, int size);
 
+    List<User> getUsersByIds(List<Long> ids);
+
     User createUser(User user);
 
+    RespUserBatchDto createUsers(List<User> users);
+
     User updateUser(Long userId, User user);
 
     void deleteUserById(Long userId);
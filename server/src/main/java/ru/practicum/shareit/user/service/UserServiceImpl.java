@@ -2,16 +2,29 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserCreatedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.dto.RespUserBatchDto;
+import ru.practicum.shareit.user.model.dto.UserBatchErrorDto;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.utils.PageRequestFactory;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +32,8 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     @Override
@@ -40,15 +55,55 @@ public class UserServiceImpl implements UserService {
         return users;
     }
 
+    // Один select с IN; отсутствующие id пропускаются
+    @Transactional(readOnly = true)
+    @Override
+    public List<User> getUsersByIds(List<Long> ids) {
+        List<User> users = userRepository.findByIdInOrderById(ids);
+        log.info("GET запрос в UserController обработан успешно. Метод getUsersByIds(), найдено={} из {}",
+                users.size(), ids.size());
+
+        return users;
+    }
+
     @Transactional
     @Override
     public User createUser(User user) {
         User createUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserCreatedEvent(createUser.getId()));
         log.info("POST запрос в UserController обработан успешно. Метод createUser(), User={}", user);
 
         return createUser;
     }
 
+    // Занятые email проверяются заранее одним запросом: конфликт одной строки не откатывает весь пакет.
+    // Если email займут параллельно между проверкой и вставкой, пакет откатится целиком
+    @Transactional
+    @Override
+    public RespUserBatchDto createUsers(List<User> users) {
+        Set<String> takenEmails = new HashSet<>(userRepository.findEmailsByEmailIn(
+                users.stream().map(User::getEmail).collect(Collectors.toSet())));
+
+        List<User> created = new ArrayList<>(users.size());
+        List<UserBatchErrorDto> errors = new ArrayList<>();
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            if (takenEmails.add(user.getEmail())) {
+                created.add(user);
+            } else {
+                errors.add(new UserBatchErrorDto(i, user.getEmail(),
+                        String.format("Пользователь с email=%s уже существует", user.getEmail())));
+            }
+        }
+
+        userRepository.insertAll(created);
+        created.forEach(user -> eventPublisher.publishEvent(new UserCreatedEvent(user.getId())));
+        log.info("POST запрос в UserController обработан успешно. Метод createUsers(), создано={}, ошибок={}",
+                created.size(), errors.size());
+
+        return new RespUserBatchDto(created, errors);
+    }
+
     @Transactional
     @Override
     public User updateUser(Long userId, User user) {
@@ -70,15 +125,21 @@ public class UserServiceImpl implements UserService {
         return updateUser;
     }
 
+    // Мягкое удаление: пользователь сразу перестаёт быть виден, его вещи, бронирования,
+    // комментарии и запросы удаляет в фоне UserPurgeService
     @Transactional
     @Override
     public void deleteUserById(Long userId) {
-        /*
-        / Здесь будет блок кода, который заберет User из таблицы users,
-        / и удалит все его Item из таблицы items.
-        / Можно забрать User через метод checkIfUserExistsById(Long userId)
-         */
-        userRepository.deleteById(userId);
+        if (!userRepository.markDeleted(userId)) {
+            throw new NotFoundException(String.format("Пользователя с таким id=%d нет", userId));
+        }
+        // Вещи остаются в БД до очистки: снимаются с аренды, чтобы их нельзя было забронировать,
+        // а после коммита - убираются из поиска и подсказок
+        for (Item item : itemRepository.findByUserIdAndAvailableTrue(userId)) {
+            item.setAvailable(false);
+            eventPublisher.publishEvent(new ItemSavedEvent(ItemMapper.buildItemDto(item)));
+        }
+        eventPublisher.publishEvent(new UserDeletedEvent(userId));
         log.info("DELETE запрос в UserController обработан успешно. Метод deleteUser(), userId={}", userId);
     }
 
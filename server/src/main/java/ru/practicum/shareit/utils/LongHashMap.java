@@ -0,0 +1,152 @@
+package ru.practicum.shareit.utils;
+
+import java.util.Objects;
+import java.util.function.LongFunction;
+
+// Map с ключами long и открытой адресацией (линейное пробирование): без упаковки ключей
+// и без вызова hashCode()/equals() у сущностей. Значения null не хранятся - null означает пустую ячейку.
+// При удалении следующие элементы цепочки сдвигаются назад, поэтому "надгробий" в таблице нет
+public class LongHashMap<V> {
+    private static final int MIN_CAPACITY = 8;
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    public LongHashMap() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    // expectedSize элементов помещаются без перестроения таблицы
+    public LongHashMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    public V get(long key) {
+        return getOrDefault(key, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(long key, V defaultValue) {
+        int index = indexOf(key);
+        return values[index] == null ? defaultValue : (V) values[index];
+    }
+
+    public boolean containsKey(long key) {
+        return values[indexOf(key)] != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        Objects.requireNonNull(value);
+        int index = indexOf(key);
+        V previous = (V) values[index];
+        values[index] = value;
+        if (previous == null) {
+            keys[index] = key;
+            grow();
+        }
+        return previous;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(long key, LongFunction<? extends V> mapping) {
+        int index = indexOf(key);
+        if (values[index] == null) {
+            V value = Objects.requireNonNull(mapping.apply(key));
+            keys[index] = key;
+            values[index] = value;
+            grow();
+            return value;
+        }
+        return (V) values[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int hole = indexOf(key);
+        V previous = (V) values[hole];
+        if (previous == null) {
+            return null;
+        }
+        values[hole] = null;
+        size--;
+
+        // Элемент переносится в дыру, если его домашняя ячейка лежит не дальше дыры по ходу пробирования
+        int index = (hole + 1) & mask;
+        while (values[index] != null) {
+            int home = hash(keys[index]) & mask;
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                keys[hole] = keys[index];
+                values[hole] = values[index];
+                values[index] = null;
+                hole = index;
+            }
+            index = (index + 1) & mask;
+        }
+        return previous;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                builder.append(builder.length() > 1 ? ", " : "").append(keys[i]).append('=').append(values[i]);
+            }
+        }
+        return builder.append('}').toString();
+    }
+
+    // Ячейка с ключом key или первая пустая ячейка, куда его можно вставить
+    private int indexOf(long key) {
+        int index = hash(key) & mask;
+        while (values[index] != null && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    // Заполненность таблицы не больше половины, чтобы цепочки пробирования оставались короткими
+    private void grow() {
+        size++;
+        if (size * 2 <= keys.length) {
+            return;
+        }
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(keys.length << 1);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int hash(long key) {
+        long hash = key * PHI;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
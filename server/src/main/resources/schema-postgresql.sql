@@ -0,0 +1,22 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS period tsrange
+GENERATED ALWAYS AS (tsrange(start_time, end_time, '[]')) STORED;
+
+ALTER TABLE bookings ADD CONSTRAINT ex_bookings_item_period
+EXCLUDE USING gist (item WITH =, period WITH &&) WHERE (status = 'APPROVED');
+
+CREATE INDEX IF NOT EXISTS idx_bookings_waiting_item_start ON bookings (item, start_time DESC)
+WHERE status = 'WAITING';
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search tsvector
+GENERATED ALWAYS AS (
+setweight(to_tsvector('russian', coalesce(name, '')), 'A') ||
+setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+setweight(to_tsvector('russian', coalesce(description, '')), 'B') ||
+setweight(to_tsvector('english', coalesce(description, '')), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_items_search ON items USING gin (search);
+
+-- Пользователи, ожидающие фоновой очистки (UserPurgeService)
+CREATE INDEX IF NOT EXISTS idx_users_deleted ON users (id) WHERE deleted;
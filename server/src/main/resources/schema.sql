@@ -8,6 +8,7 @@ CREATE TABLE IF NOT EXISTS users (
 id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
 name varchar(255) NOT NULL,
 email varchar(255) NOT NULL,
+deleted boolean NOT NULL DEFAULT false,
 CONSTRAINT un_user_email UNIQUE (email)
 );
 
@@ -51,3 +52,8 @@ CONSTRAINT fk_comments_item FOREIGN KEY (item) REFERENCES items(id),
 CONSTRAINT fk_comments_author FOREIGN KEY (author) REFERENCES users(id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker, start_time DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item, status, start_time);
+CREATE INDEX IF NOT EXISTS idx_items_user_id ON items (user_id, id);
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item, id);
+CREATE INDEX IF NOT EXISTS idx_requests_creator_created ON requests (creator, created DESC);
@@ -0,0 +1,131 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+
+// Планы запросов по основным путям доступа на заполненных таблицах:
+// каждый путь должен идти по индексу, а не сканировать таблицу.
+// H2 сам индексирует внешние ключи и при равной стоимости выбирает их,
+// поэтому составной индекс проверяется там, где используется его второй столбец
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SchemaIndexDataJpaTest {
+    private static final String TABLE_SCAN = "tableScan";
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO users (name, email) " +
+                "SELECT 'User' || X, 'user' || X || '@gmail.com' FROM SYSTEM_RANGE(1, 100)");
+        jdbcTemplate.update("INSERT INTO requests (creator, description, created) " +
+                "SELECT MOD(X, 100) + 1, 'Request' || X, DATEADD('HOUR', X, TIMESTAMP '2024-01-01 00:00:00') " +
+                "FROM SYSTEM_RANGE(1, 1000)");
+        jdbcTemplate.update("INSERT INTO items (user_id, name, description, available) " +
+                "SELECT MOD(X, 100) + 1, 'Item' || X, 'Description' || X, true FROM SYSTEM_RANGE(1, 1000)");
+        jdbcTemplate.update("INSERT INTO bookings (start_time, end_time, status, item, booker) " +
+                "SELECT DATEADD('HOUR', X, TIMESTAMP '2024-01-01 00:00:00'), " +
+                "DATEADD('HOUR', X + 1, TIMESTAMP '2024-01-01 00:00:00'), " +
+                "CASE MOD(X, 3) WHEN 0 THEN 'WAITING' ELSE 'APPROVED' END, MOD(X, 1000) + 1, MOD(X, 100) + 1 " +
+                "FROM SYSTEM_RANGE(1, 10000)");
+        jdbcTemplate.update("INSERT INTO comments (text, item, author, created) " +
+                "SELECT 'Comment' || X, MOD(X, 1000) + 1, MOD(X, 100) + 1, TIMESTAMP '2024-01-01 00:00:00' " +
+                "FROM SYSTEM_RANGE(1, 5000)");
+        // Статистика по столбцам для оптимизатора. ANALYZE в H2 фиксирует транзакцию,
+        // поэтому тест выполняется без неё и удаляет данные сам
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    // Удаляю данные и сбрасываю поле id в таблицах, чтобы в остальных тестах id начинались с 1
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DELETE FROM comments");
+        jdbcTemplate.execute("DELETE FROM bookings");
+        jdbcTemplate.execute("DELETE FROM items");
+        jdbcTemplate.execute("DELETE FROM requests");
+        jdbcTemplate.execute("DELETE FROM users");
+        jdbcTemplate.execute("ALTER TABLE comments ALTER COLUMN id RESTART WITH 1");
+        jdbcTemplate.execute("ALTER TABLE bookings ALTER COLUMN id RESTART WITH 1");
+        jdbcTemplate.execute("ALTER TABLE items ALTER COLUMN id RESTART WITH 1");
+        jdbcTemplate.execute("ALTER TABLE requests ALTER COLUMN id RESTART WITH 1");
+        jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH 1");
+    }
+
+    @Test
+    void bookerFutureBookings_ShouldUseBookerStartIndex() {
+        String plan = explain("SELECT * FROM bookings AS b " +
+                "WHERE b.booker = 5 AND b.start_time > TIMESTAMP '2024-06-01 00:00:00' " +
+                "ORDER BY b.start_time DESC, b.id DESC");
+
+        assertThat(plan, containsString("IDX_BOOKINGS_BOOKER_START"));
+    }
+
+    @Test
+    void bookerAllBookings_ShouldNotScanTable() {
+        String plan = explain("SELECT * FROM bookings AS b WHERE b.booker = 5 ORDER BY b.start_time DESC, b.id DESC");
+
+        assertThat(plan, not(containsString(TABLE_SCAN)));
+    }
+
+    @Test
+    void itemLastBooking_ShouldUseItemStatusStartIndex() {
+        String plan = explain("SELECT * FROM bookings AS b " +
+                "WHERE b.item = 5 AND b.status = 'APPROVED' AND b.start_time < TIMESTAMP '2024-06-01 00:00:00' " +
+                "ORDER BY b.start_time DESC");
+
+        assertThat(plan, containsString("IDX_BOOKINGS_ITEM_STATUS_START"));
+    }
+
+    @Test
+    void ownerWaitingBookings_ShouldNotScanTables() {
+        String plan = explain("SELECT b.* FROM bookings AS b JOIN items AS i ON b.item = i.id " +
+                "WHERE i.user_id = 5 AND b.status = 'WAITING' " +
+                "ORDER BY b.start_time DESC, b.id DESC");
+
+        assertThat(plan, not(containsString(TABLE_SCAN)));
+    }
+
+    @Test
+    void ownerItemsAfterId_ShouldUseUserIdIndex() {
+        String plan = explain("SELECT i.id FROM items AS i WHERE i.user_id = 5 AND i.id > 100 ORDER BY i.id");
+
+        assertThat(plan, containsString("IDX_ITEMS_USER_ID"));
+    }
+
+    @Test
+    void itemsComments_ShouldNotScanTable() {
+        String plan = explain("SELECT * FROM comments AS c WHERE c.item IN (1, 2, 3)");
+
+        assertThat(plan, not(containsString(TABLE_SCAN)));
+    }
+
+    @Test
+    void itemCommentsAfterId_ShouldUseItemIdIndex() {
+        String plan = explain("SELECT * FROM comments AS c WHERE c.item = 5 AND c.id > 100 ORDER BY c.id");
+
+        assertThat(plan, containsString("IDX_COMMENTS_ITEM_ID"));
+    }
+
+    @Test
+    void creatorRequestsBeforeDate_ShouldUseCreatorCreatedIndex() {
+        String plan = explain("SELECT * FROM requests AS r " +
+                "WHERE r.creator = 5 AND r.created < TIMESTAMP '2024-01-20 00:00:00' " +
+                "ORDER BY r.created DESC");
+
+        assertThat(plan, containsString("IDX_REQUESTS_CREATOR_CREATED"));
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
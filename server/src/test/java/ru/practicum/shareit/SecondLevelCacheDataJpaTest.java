@@ -0,0 +1,114 @@
+package ru.practicum.shareit;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+// Чтение User, Item и ItemRequest по id из кэша второго уровня, без запросов к БД.
+// Кэш заполняется только после коммита, поэтому тест выполняется без общей транзакции
+// и удаляет данные через репозитории: удаление мимо Hibernate оставило бы записи в кэше
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheDataJpaTest {
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+    private Statistics statistics;
+    private User user;
+    private Item item;
+    private ItemRequest request;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User(null, "User", "user@gmail.com"));
+        request = itemRequestRepository.save(
+                ItemRequest.builder().creator(user).description("Нужна дрель").created(LocalDateTime.now()).build());
+        item = itemRepository.save(new Item(null, user, "Дрель", "Простая дрель", true, request));
+        // Вставка с IDENTITY в кэш не попадает, первое чтение по id идёт в БД
+        userRepository.findById(user.getId());
+        itemRepository.findById(item.getId());
+        itemRequestRepository.findById(request.getId());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+        jdbcTemplate.execute("ALTER TABLE items ALTER COLUMN id RESTART WITH 1");
+        jdbcTemplate.execute("ALTER TABLE requests ALTER COLUMN id RESTART WITH 1");
+        jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH 1");
+    }
+
+    @Test
+    void findById_ShouldReadEntitiesFromSecondLevelCache() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(userRepository.findById(user.getId()).orElseThrow().getName(), equalTo("User"));
+            assertThat(itemRepository.findById(item.getId()).orElseThrow().getName(), equalTo("Дрель"));
+            assertThat(itemRequestRepository.findById(request.getId()).orElseThrow().getDescription(),
+                    equalTo("Нужна дрель"));
+        }
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+        assertThat(statistics.getDomainDataRegionStatistics("users").getHitCount(), equalTo(3L));
+        assertThat(statistics.getDomainDataRegionStatistics("items").getHitCount(), equalTo(3L));
+        assertThat(statistics.getDomainDataRegionStatistics("requests").getHitCount(), equalTo(3L));
+    }
+
+    @Test
+    void findById_ShouldReturnUpdatedEntityFromSecondLevelCache() {
+        user.setName("Updated user");
+        userRepository.save(user);
+        statistics.clear();
+
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getName(), equalTo("Updated user"));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(0L));
+    }
+
+    @Test
+    void entityRegions_ShouldExpireAfterWrite() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+
+        for (String region : List.of("users", "items", "requests")) {
+            CaffeineConfiguration<?, ?> configuration = cacheManager.getCache(region)
+                    .getConfiguration(CaffeineConfiguration.class);
+            assertThat(configuration.getExpireAfterWrite(), equalTo(OptionalLong.of(Duration.ofMinutes(10).toNanos())));
+        }
+    }
+}
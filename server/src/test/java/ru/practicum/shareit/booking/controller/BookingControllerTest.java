@@ -12,6 +12,7 @@ import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.dto.ItemBookingDto;
 import ru.practicum.shareit.booking.model.dto.ReqBookingDto;
 import ru.practicum.shareit.booking.model.dto.RespBookingDto;
+import ru.practicum.shareit.booking.model.dto.RespBookingPageDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.IncorrectBookingException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -28,6 +29,7 @@ import static org.mockito.AdditionalMatchers.not;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -127,6 +129,57 @@ class BookingControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getUserBookingsByState_ShouldReturnPageWithNextCursorHeader() throws Exception {
+        when(bookingService.getUserBookingsByCursor(anyLong(), anyString(), eq(""), anyInt()))
+                .thenReturn(new RespBookingPageDto(List.of(respBookingDto), "next"));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("state", "ALL")
+                        .param("size", "1")
+                        .param("cursor", "")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$.[0]id", is(1L), Long.class));
+    }
+
+    @Test
+    void getOwnerBookingsByState_ShouldReturnLastPageWithoutNextCursorHeader() throws Exception {
+        when(bookingService.getOwnerBookingsByCursor(anyLong(), anyString(), eq("cursor"), anyInt()))
+                .thenReturn(new RespBookingPageDto(List.of(respBookingDto), null));
+
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("state", "ALL")
+                        .param("size", "10")
+                        .param("cursor", "cursor")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void getUserBookingsByState_ShouldReturnBadRequestForMalformedCursor() throws Exception {
+        when(bookingService.getUserBookingsByCursor(anyLong(), anyString(), anyString(), anyInt()))
+                .thenThrow(new IncorrectBookingException("Некорректный cursor=???"));
+
+        mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("cursor", "???")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getOwnerBookingsByState_ShouldReturnRespBookingDtoList() throws Exception {
         when(bookingService.getOwnerBookingsByState(anyLong(),anyString(), anyInt(), anyInt()))
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking.model;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exception.IncorrectBookingException;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingCursorTest {
+
+    @Test
+    void decode_ShouldReturnEncodedCursor() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2023, 3, 1, 12, 30, 15, 123_000_000), 42L);
+
+        assertThat(BookingCursor.decode(cursor.encode()), equalTo(cursor));
+    }
+
+    @Test
+    void of_ShouldRoundStartToMicroseconds() {
+        Booking booking = new Booking();
+        booking.setId(42L);
+        booking.setStart(LocalDateTime.of(2023, 3, 1, 12, 30, 15, 123_456_789));
+
+        assertThat(BookingCursor.of(booking).getStart(), equalTo(LocalDateTime.of(2023, 3, 1, 12, 30, 15, 123_457_000)));
+    }
+
+    @Test
+    void decode_ShouldThrowIncorrectBookingExceptionForMalformedCursor() {
+        final IncorrectBookingException e = assertThrows(
+                IncorrectBookingException.class,
+                () -> BookingCursor.decode("not a cursor"));
+
+        assertThat(e.getMessage(), equalTo("Некорректный cursor=not a cursor"));
+    }
+}
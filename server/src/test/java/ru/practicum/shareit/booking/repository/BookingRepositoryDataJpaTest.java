@@ -2,22 +2,31 @@ package ru.practicum.shareit.booking.repository;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.NearestBooking;
+import ru.practicum.shareit.booking.model.dto.RespBookingDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.utils.PageRequestFactory;
 
 import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -62,7 +71,7 @@ class BookingRepositoryDataJpaTest {
     }
 
     @Test
-    void findByBookerIdAndCurrentState_ShouldSaveAndReturnBookingFromDataBase() {
+    void findPageForBookerInCurrentState_ShouldSaveAndReturnBookingFromDataBase() {
         Assertions.assertNull(booking.getId());
         em.persist(user);
         em.persist(booker);
@@ -70,10 +79,12 @@ class BookingRepositoryDataJpaTest {
         em.persist(booking);
         Assertions.assertNotNull(booking.getId());
 
-        List<Booking> bookings = bookingRepository.findByBookerIdAndCurrentState(
-                booker.getId(),
-                LocalDateTime.now(),
-                PageRequestFactory.createPageRequest(0, 10, Sort.by(Sort.Direction.DESC, "start")));
+        List<Booking> bookings = bookingRepository.findPage(BookingQuery.builder()
+                .userId(booker.getId())
+                .owner(false)
+                .state("CURRENT")
+                .now(LocalDateTime.now())
+                .build(), 0, 10);
 
         assertThat(bookings, hasSize(1));
 
@@ -88,7 +99,7 @@ class BookingRepositoryDataJpaTest {
     }
 
     @Test
-    void findByOwnerIdAndCurrentState_ShouldSaveAndReturnBookingFromDataBase() {
+    void findPageForOwnerInCurrentState_ShouldSaveAndReturnBookingFromDataBase() {
         Assertions.assertNull(booking.getId());
         em.persist(user);
         em.persist(booker);
@@ -96,10 +107,12 @@ class BookingRepositoryDataJpaTest {
         em.persist(booking);
         Assertions.assertNotNull(booking.getId());
 
-        List<Booking> bookings = bookingRepository.findByOwnerIdAndCurrentState(
-                user.getId(),
-                LocalDateTime.now(),
-                PageRequestFactory.createPageRequest(0, 10, Sort.by(Sort.Direction.DESC, "start")));
+        List<Booking> bookings = bookingRepository.findPage(BookingQuery.builder()
+                .userId(user.getId())
+                .owner(true)
+                .state("CURRENT")
+                .now(LocalDateTime.now())
+                .build(), 0, 10);
 
         assertThat(bookings, hasSize(1));
 
@@ -114,7 +127,7 @@ class BookingRepositoryDataJpaTest {
     }
 
     @Test
-    void findAvailableItemForBooking_ShouldSaveAndReturnBookingFromDataBase() {
+    void findOverlappingBookings_ShouldSaveAndReturnBookingFromDataBase() {
         Assertions.assertNull(booking.getId());
         em.persist(user);
         em.persist(booker);
@@ -122,12 +135,15 @@ class BookingRepositoryDataJpaTest {
         em.persist(booking);
         Assertions.assertNotNull(booking.getId());
 
-        Booking dbBooking = bookingRepository.findAvailableItemForBooking(
+        List<Booking> bookings = bookingRepository.findOverlappingBookings(
                 item.getId(),
                 Status.WAITING,
                 LocalDateTime.now(),
-                LocalDateTime.now().plusDays(2));
+                LocalDateTime.now().plusDays(2),
+                PageRequest.of(0, 1));
 
+        assertThat(bookings, hasSize(1));
+        Booking dbBooking = bookings.get(0);
         assertThat(dbBooking.getId(), equalTo(1L));
         assertTrue(dbBooking.getStart().isBefore(LocalDateTime.now()));
         assertTrue(dbBooking.getEnd().isAfter(LocalDateTime.now()));
@@ -135,4 +151,148 @@ class BookingRepositoryDataJpaTest {
         assertThat(dbBooking.getItem(), equalTo(booking.getItem()));
         assertThat(dbBooking.getBooker(), equalTo(booking.getBooker()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findOverlappingBookings_ShouldReturnEarliestOfSeveralOverlappingApprovedBookings() {
+        em.persist(user);
+        em.persist(booker);
+        em.persist(item);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        // Оба подтверждённых бронирования пересекаются с запрошенным периодом
+        Booking later = em.persist(new Booking(null, start.plusDays(2), start.plusDays(3), Status.APPROVED, item, booker));
+        Booking earlier = em.persist(new Booking(null, start, start.plusDays(1), Status.APPROVED, item, booker));
+
+        List<Booking> bookings = bookingRepository.findOverlappingBookings(item.getId(), Status.APPROVED,
+                start.plusHours(12), start.plusDays(2).plusHours(12), PageRequest.of(0, 1));
+
+        assertThat(bookings, contains(earlier));
+        assertThat(bookingRepository.findOverlappingBookings(item.getId(), Status.APPROVED,
+                start.plusHours(12), start.plusDays(2).plusHours(12), PageRequest.of(0, 10)), contains(earlier, later));
+    }
+
+    @Test
+    void findPageAfter_ShouldReturnBookingsPageByPageInStartAndIdDescOrder() {
+        em.persist(user);
+        em.persist(booker);
+        em.persist(item);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        // Два бронирования с одинаковым start: порядок между ними задаёт id
+        List<Booking> bookings = List.of(
+                new Booking(null, start, start.plusHours(1), Status.WAITING, item, booker),
+                new Booking(null, start, start.plusHours(2), Status.WAITING, item, booker),
+                new Booking(null, start.plusDays(1), start.plusDays(2), Status.WAITING, item, booker),
+                new Booking(null, start.minusHours(12), start.minusHours(6), Status.REJECTED, item, booker),
+                new Booking(null, start.plusDays(3), start.plusDays(4), Status.WAITING, item, booker));
+        bookings.forEach(em::persist);
+
+        BookingQuery query = BookingQuery.builder()
+                .userId(booker.getId())
+                .owner(false)
+                .state("ALL")
+                .now(LocalDateTime.now())
+                .build();
+
+        List<Long> ids = new ArrayList<>();
+        BookingCursor cursor = null;
+        do {
+            List<Booking> page = bookingRepository.findPageAfter(query, cursor, 2);
+            page.forEach(dbBooking -> ids.add(dbBooking.getId()));
+            cursor = page.size() < 2 ? null : BookingCursor.of(page.get(page.size() - 1));
+        } while (cursor != null);
+
+        assertThat(ids, contains(5L, 3L, 2L, 1L, 4L));
+    }
+
+    @Test
+    void findPageAfter_ShouldFilterOwnerBookingsByState() {
+        em.persist(user);
+        em.persist(booker);
+        em.persist(item);
+        em.persist(booking);
+        em.persist(new Booking(null, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2),
+                Status.REJECTED, item, booker));
+
+        BookingQuery query = BookingQuery.builder()
+                .userId(user.getId())
+                .owner(true)
+                .state("CURRENT")
+                .now(LocalDateTime.now())
+                .build();
+
+        List<Booking> bookings = bookingRepository.findPageAfter(query, null, 10);
+
+        assertThat(bookings, hasSize(1));
+        assertThat(bookings.get(0).getId(), equalTo(booking.getId()));
+    }
+
+    @Test
+    void findPage_ShouldLoadPageWithItemsAndBookersInOneStatement() {
+        User otherBooker = new User(null, "Other booker", "other@gmail.com");
+        Item otherItem = new Item(null, user, "Other item", "Other description", true, null);
+        em.persist(user);
+        em.persist(booker);
+        em.persist(otherBooker);
+        em.persist(item);
+        em.persist(otherItem);
+        for (int i = 0; i < 5; i++) {
+            LocalDateTime start = LocalDateTime.now().plusDays(i + 1);
+            em.persist(new Booking(null, start, start.plusHours(1), Status.WAITING, item, booker));
+            em.persist(new Booking(null, start, start.plusHours(1), Status.WAITING, otherItem, otherBooker));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<Booking> bookings = bookingRepository.findPage(BookingQuery.builder()
+                .userId(user.getId())
+                .owner(true)
+                .state("ALL")
+                .now(LocalDateTime.now())
+                .build(), 0, 10);
+        // Маппер обращается к item и booker каждой записи
+        List<RespBookingDto> dtos = BookingMapper.buildRespBookingDto(bookings);
+
+        assertThat(dtos, hasSize(10));
+        assertThat(statistics.getPrepareStatementCount(), equalTo(1L));
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void findNearestBookings_ShouldReturnLastAndNextApprovedBookingOfEachItem() {
+        User otherUser = new User(null, "Other user", "other@gmail.com");
+        Item otherItem = new Item(null, otherUser, "Other item", "Other description", true, null);
+        Item freeItem = new Item(null, user, "Free item", "Free description", true, null);
+        LocalDateTime now = LocalDateTime.now();
+        em.persist(user);
+        em.persist(booker);
+        em.persist(otherUser);
+        em.persist(item);
+        em.persist(otherItem);
+        em.persist(freeItem);
+        em.persist(new Booking(null, now.minusDays(9), now.minusDays(8), Status.APPROVED, item, booker));
+        Booking last = em.persist(new Booking(null, now.minusDays(3), now.minusDays(2), Status.APPROVED, item, booker));
+        em.persist(new Booking(null, now.minusDays(1), now.plusDays(1), Status.REJECTED, item, booker));
+        em.persist(new Booking(null, now.plusDays(1), now.plusDays(2), Status.WAITING, item, booker));
+        Booking next = em.persist(new Booking(null, now.plusDays(3), now.plusDays(4), Status.APPROVED, item, booker));
+        em.persist(new Booking(null, now.plusDays(7), now.plusDays(8), Status.APPROVED, item, booker));
+        Booking otherNext = em.persist(new Booking(null, now.plusDays(5), now.plusDays(6), Status.APPROVED, otherItem, booker));
+
+        List<NearestBooking> nearest = bookingRepository.findNearestBookings(
+                List.of(item.getId(), otherItem.getId(), freeItem.getId()), Status.APPROVED.name(), now);
+
+        assertThat(nearest, hasSize(3));
+        assertThat(nearest.stream()
+                        .map(booking -> List.of(booking.getItemId(), booking.getId(), booking.getBookerId(),
+                                booking.getPast() ? 1L : 0L))
+                        .collect(Collectors.toList()),
+                containsInAnyOrder(
+                        List.of(item.getId(), last.getId(), booker.getId(), 1L),
+                        List.of(item.getId(), next.getId(), booker.getId(), 0L),
+                        List.of(otherItem.getId(), otherNext.getId(), booker.getId(), 0L)));
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.event.BookingApprovedEvent;
+import ru.practicum.shareit.booking.event.BookingDeletedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAvailabilityIndexTest {
+    @Mock
+    private BookingRepository bookingRepository;
+    @InjectMocks
+    private BookingAvailabilityIndex availabilityIndex;
+    private final LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+    private final BookingInterval first = new BookingInterval(1L, 1L, now, now.plusDays(2));
+    private final BookingInterval second = new BookingInterval(2L, 1L, now.plusDays(5), now.plusDays(6));
+    private final BookingInterval other = new BookingInterval(3L, 2L, now.minusDays(10), now.plusDays(10));
+
+    private void loadApprovedBookings() {
+        when(bookingRepository.findIntervalsByStatus(Status.APPROVED)).thenReturn(List.of(first, second, other));
+        availabilityIndex.load();
+    }
+
+    @Test
+    void findOverlap_ShouldReturnIntervalEnclosingRequestedPeriod() {
+        loadApprovedBookings();
+
+        assertThat(availabilityIndex.findOverlap(1L, now.plusHours(1), now.plusHours(2)), equalTo(Optional.of(first)));
+    }
+
+    @Test
+    void findOverlap_ShouldReturnIntervalEnclosedByRequestedPeriod() {
+        loadApprovedBookings();
+
+        assertThat(availabilityIndex.findOverlap(1L, now.plusDays(4), now.plusDays(7)), equalTo(Optional.of(second)));
+    }
+
+    @Test
+    void findOverlap_ShouldReturnIntervalTouchingRequestedPeriod() {
+        loadApprovedBookings();
+
+        assertThat(availabilityIndex.findOverlap(1L, now.minusDays(1), now), equalTo(Optional.of(first)));
+        assertThat(availabilityIndex.findOverlap(1L, now.plusDays(6), now.plusDays(7)), equalTo(Optional.of(second)));
+    }
+
+    @Test
+    void findOverlap_ShouldReturnEmptyForFreePeriod() {
+        loadApprovedBookings();
+
+        assertThat(availabilityIndex.findOverlap(1L, now.plusDays(3), now.plusDays(4)), equalTo(Optional.empty()));
+        assertThat(availabilityIndex.findOverlap(1L, now.plusDays(7), now.plusDays(8)), equalTo(Optional.empty()));
+        assertThat(availabilityIndex.findOverlap(3L, now, now.plusDays(1)), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void onBookingApproved_ShouldAddIntervalToIndex() {
+        loadApprovedBookings();
+        BookingInterval approved = new BookingInterval(4L, 1L, now.plusDays(3), now.plusDays(4));
+
+        availabilityIndex.onBookingApproved(new BookingApprovedEvent(approved));
+        availabilityIndex.onBookingApproved(new BookingApprovedEvent(approved));
+
+        assertThat(availabilityIndex.findOverlap(1L, now.plusDays(3), now.plusDays(3)),
+                equalTo(Optional.of(approved)));
+        assertThat(availabilityIndex.findOverlap(1L, now.plusDays(4), now.plusDays(5)),
+                equalTo(Optional.of(approved)));
+    }
+
+    @Test
+    void onBookingApproved_ShouldCreateIndexForNewItem() {
+        loadApprovedBookings();
+        BookingInterval approved = new BookingInterval(4L, 5L, now, now.plusDays(1));
+
+        availabilityIndex.onBookingApproved(new BookingApprovedEvent(approved));
+
+        assertThat(availabilityIndex.findOverlap(5L, now.minusDays(1), now.plusDays(2)),
+                equalTo(Optional.of(approved)));
+    }
+
+    @Test
+    void onBookingDeleted_ShouldRemoveIntervalFromIndex() {
+        loadApprovedBookings();
+
+        availabilityIndex.onBookingDeleted(new BookingDeletedEvent(first.getId(), 1L));
+        availabilityIndex.onBookingDeleted(new BookingDeletedEvent(99L, 1L));
+
+        assertThat(availabilityIndex.findOverlap(1L, now, now.plusDays(1)), equalTo(Optional.empty()));
+        assertThat(availabilityIndex.findOverlap(1L, now.plusDays(5), now.plusDays(6)), equalTo(Optional.of(second)));
+    }
+
+    @Test
+    void onItemDeleted_ShouldRemoveItemIntervals() {
+        loadApprovedBookings();
+
+        availabilityIndex.onItemDeleted(new ItemDeletedEvent(2L));
+
+        assertThat(availabilityIndex.findOverlap(2L, now, now.plusDays(1)), equalTo(Optional.empty()));
+        assertThat(availabilityIndex.findOverlap(1L, now, now.plusDays(1)), equalTo(Optional.of(first)));
+    }
+
+    @Test
+    void findOverlap_ShouldQueryDataBaseBeforeIndexIsLoaded() {
+        Booking booking = new Booking();
+        booking.setId(1L);
+        booking.setStart(first.getStart());
+        booking.setEnd(first.getEnd());
+        when(bookingRepository.findOverlappingBookings(1L, Status.APPROVED, now, now.plusDays(1), PageRequest.of(0, 1)))
+                .thenReturn(List.of(booking));
+
+        assertThat(availabilityIndex.findOverlap(1L, now, now.plusDays(1)), equalTo(Optional.of(first)));
+    }
+}
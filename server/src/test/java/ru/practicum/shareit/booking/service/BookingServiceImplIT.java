@@ -10,6 +10,10 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.dto.ReqBookingDto;
+import ru.practicum.shareit.booking.model.dto.RespBookingDto;
+import ru.practicum.shareit.booking.model.dto.RespBookingPageDto;
+import ru.practicum.shareit.exception.IncorrectBookingException;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
@@ -18,11 +22,14 @@ import ru.practicum.shareit.user.service.UserService;
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @Transactional
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
@@ -564,6 +571,18 @@ class BookingServiceImplIT {
         assertThat(createBooking.getStatus(), equalTo(Status.WAITING));
     }
 
+    @Test
+    void createBooking_ShouldRejectItemOfSoftDeletedOwnerBeforePurge() {
+        User dbUser1 = userService.createUser(user1);
+        User dbUser2 = userService.createUser(user2);
+        itemService.createItem(dbUser1.getId(), itemDto1);
+        userService.deleteUserById(dbUser1.getId());
+
+        // Вещь ещё в БД: фоновая очистка её не удалила
+        assertThat(em.find(Item.class, 1L).getAvailable(), is(false));
+        assertThrows(IncorrectBookingException.class, () -> bookingService.createBooking(dbUser2.getId(), reqBookingDto));
+    }
+
     @Test
     void updateBookingApprove_ShouldApproveBookingFromDataBase() {
         User dbUser1 = userService.createUser(user1);
@@ -607,4 +626,34 @@ class BookingServiceImplIT {
         assertThat(updateBooking.getBooker(), equalTo(dbUser2));
         assertThat(updateBooking.getStatus(), equalTo(Status.REJECTED));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getUserBookingsByCursor_ShouldReturnSameBookingsAsOffsetPaging() {
+        User dbUser1 = userService.createUser(user1);
+        User dbUser2 = userService.createUser(user2);
+        itemService.createItem(dbUser1.getId(), itemDto1);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        for (int i = 0; i < 25; i++) {
+            reqBookingDto.setStart(start.plusHours(i));
+            reqBookingDto.setEnd(start.plusHours(i).plusMinutes(30));
+            bookingService.createBooking(dbUser2.getId(), reqBookingDto);
+        }
+
+        List<Long> cursorIds = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = "";
+        while (cursor != null) {
+            RespBookingPageDto page = bookingService.getUserBookingsByCursor(dbUser2.getId(), "FUTURE", cursor, 10);
+            page.getBookings().forEach(booking -> cursorIds.add(booking.getId()));
+            pageSizes.add(page.getBookings().size());
+            cursor = page.getNextCursor();
+        }
+
+        List<Long> offsetIds = bookingService.getUserBookingsByState(dbUser2.getId(), "FUTURE", 0, 25).stream()
+                .map(RespBookingDto::getId)
+                .collect(Collectors.toList());
+
+        assertThat(pageSizes, contains(10, 10, 5));
+        assertThat(cursorIds, equalTo(offsetIds));
+    }
+}
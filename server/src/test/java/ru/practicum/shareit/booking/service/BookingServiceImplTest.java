@@ -6,12 +6,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCursor;
+import ru.practicum.shareit.booking.model.BookingInterval;
 import ru.practicum.shareit.booking.model.dto.ItemBookingDto;
 import ru.practicum.shareit.booking.model.dto.ReqBookingDto;
 import ru.practicum.shareit.booking.model.dto.RespBookingDto;
+import ru.practicum.shareit.booking.model.dto.RespBookingPageDto;
+import ru.practicum.shareit.booking.repository.BookingQuery;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.IncorrectBookingException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -21,7 +26,9 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.model.dto.UserBookingDto;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceService;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -31,6 +38,11 @@ import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 
@@ -42,6 +54,12 @@ class BookingServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private BookingRepository bookingRepository;
+    @Mock
+    private BookingAvailabilityIndex availabilityIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private UserExistenceService userExistenceService;
     @InjectMocks
     private BookingServiceImpl bookingService;
     private final User user = new User();
@@ -107,8 +125,9 @@ class BookingServiceImplTest {
 
     @Test
     void getUserBookingsByState_ShouldReturnListOfAllRespBookingDtos() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerId(anyLong(), any(Pageable.class))).thenReturn(List.of(booking));
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(argThat(query -> !query.isOwner() && query.getState().equals("ALL")), eq(0), eq(10)))
+                .thenReturn(List.of(booking));
 
         List<RespBookingDto> dbBookingDtos = bookingService.getUserBookingsByState(1L, "ALL", 0, 10);
         assertThat(dbBookingDtos, hasSize(1));
@@ -124,10 +143,8 @@ class BookingServiceImplTest {
 
     @Test
     void getUserBookingsByState_ShouldReturnListOfPastRespBookingDtos() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository
-                .findByBookerIdAndEndBefore(
-                        anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(argThat(query -> !query.isOwner() && query.getState().equals("PAST")), eq(0), eq(10)))
                 .thenReturn(List.of(booking));
 
         List<RespBookingDto> dbBookingDtos = bookingService.getUserBookingsByState(1L, "PAST", 0, 10);
@@ -144,10 +161,8 @@ class BookingServiceImplTest {
 
     @Test
     void getUserBookingsByState_ShouldReturnListOfCurrentRespBookingDtos() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository
-                .findByBookerIdAndCurrentState(
-                        anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(argThat(query -> !query.isOwner() && query.getState().equals("CURRENT")), eq(0), eq(10)))
                 .thenReturn(List.of(booking));
 
         List<RespBookingDto> dbBookingDtos = bookingService.getUserBookingsByState(1L, "CURRENT", 0, 10);
@@ -164,10 +179,8 @@ class BookingServiceImplTest {
 
     @Test
     void getUserBookingsByState_ShouldReturnListOfFutureRespBookingDtos() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository
-                .findByBookerIdAndStartAfter(
-                        anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(argThat(query -> !query.isOwner() && query.getState().equals("FUTURE")), eq(0), eq(10)))
                 .thenReturn(List.of(booking));
 
         List<RespBookingDto> dbBookingDtos = bookingService.getUserBookingsByState(1L, "FUTURE", 0, 10);
@@ -184,10 +197,8 @@ class BookingServiceImplTest {
 
     @Test
     void getUserBookingsByState_ShouldReturnListOfWaitingRespBookingDtos() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository
-                .findByBookerIdAndStatus(
-                        anyLong(), any(Status.class), any(Pageable.class)))
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(argThat(query -> !query.isOwner() && query.getState().equals("WAITING")), eq(0), eq(10)))
                 .thenReturn(List.of(booking));
 
         List<RespBookingDto> dbBookingDtos = bookingService.getUserBookingsByState(1L, "WAITING", 0, 10);
@@ -204,10 +215,8 @@ class BookingServiceImplTest {
 
     @Test
     void getUserBookingsByState_ShouldReturnListOfRejectedRespBookingDtos() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository
-                .findByBookerIdAndStatus(
-                        anyLong(), any(Status.class), any(Pageable.class)))
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(argThat(query -> !query.isOwner() && query.getState().equals("REJECTED")), eq(0), eq(10)))
                 .thenReturn(List.of(booking));
 
         booking.setStatus(Status.REJECTED);
@@ -236,8 +245,9 @@ class BookingServiceImplTest {
 
     @Test
     void getOwnerBookingsByState_ShouldReturnListOfAllRespBookingDtos() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository.findByItemUserId(anyLong(), any(Pageable.class))).thenReturn(List.of(booking));
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(argThat(query -> query.isOwner() && query.getState().equals("ALL")), eq(0), eq(10)))
+                .thenReturn(List.of(booking));
 
         List<RespBookingDto> dbBookingDtos = bookingService.getOwnerBookingsByState(1L, "ALL", 0, 10);
         assertThat(dbBookingDtos, hasSize(1));
@@ -253,10 +263,8 @@ class BookingServiceImplTest {
 
     @Test
     void getOwnerBookingByState_ShouldReturnListOfPastRespBookingDtos() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository
-                .findByItemUserIdAndEndBefore(
-                        anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(argThat(query -> query.isOwner() && query.getState().equals("PAST")), eq(0), eq(10)))
                 .thenReturn(List.of(booking));
 
         List<RespBookingDto> dbBookingDtos = bookingService.getOwnerBookingsByState(1L, "PAST", 0, 10);
@@ -273,10 +281,8 @@ class BookingServiceImplTest {
 
     @Test
     void getOwnerBookingByState_ShouldReturnListOfCurrentRespBookingDtos() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository
-                .findByOwnerIdAndCurrentState(
-                        anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(argThat(query -> query.isOwner() && query.getState().equals("CURRENT")), eq(0), eq(10)))
                 .thenReturn(List.of(booking));
 
         List<RespBookingDto> dbBookingDtos = bookingService.getOwnerBookingsByState(1L, "CURRENT", 0, 10);
@@ -293,10 +299,8 @@ class BookingServiceImplTest {
 
     @Test
     void getOwnerBookingByState_ShouldReturnListOfFutureRespBookingDtos() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository
-                .findByItemUserIdAndStartAfter(
-                        anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(argThat(query -> query.isOwner() && query.getState().equals("FUTURE")), eq(0), eq(10)))
                 .thenReturn(List.of(booking));
 
         List<RespBookingDto> dbBookingDtos = bookingService.getOwnerBookingsByState(1L, "FUTURE", 0, 10);
@@ -313,10 +317,8 @@ class BookingServiceImplTest {
 
     @Test
     void getOwnerBookingByState_ShouldReturnListOfWaitingRespBookingDtos() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository
-                .findByItemUserIdAndStatus(
-                        anyLong(), any(Status.class), any(Pageable.class)))
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(argThat(query -> query.isOwner() && query.getState().equals("WAITING")), eq(0), eq(10)))
                 .thenReturn(List.of(booking));
 
         List<RespBookingDto> dbBookingDtos = bookingService.getOwnerBookingsByState(1L, "WAITING", 0, 10);
@@ -333,10 +335,8 @@ class BookingServiceImplTest {
 
     @Test
     void getOwnerBookingByState_ShouldReturnListOfRejectedRespBookingDtos() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(bookingRepository
-                .findByItemUserIdAndStatus(
-                        anyLong(), any(Status.class), any(Pageable.class)))
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findPage(argThat(query -> query.isOwner() && query.getState().equals("REJECTED")), eq(0), eq(10)))
                 .thenReturn(List.of(booking));
 
         booking.setStatus(Status.REJECTED);
@@ -412,10 +412,8 @@ class BookingServiceImplTest {
     void createBooking_ShouldThrowIncorrectBookingException() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         when(itemRepository.findByIdAndUserIdNot(anyLong(), anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository
-                .findAvailableItemForBooking(
-                        anyLong(), any(Status.class), any(LocalDateTime.class), any(LocalDateTime.class)))
-                .thenReturn(booking);
+        when(availabilityIndex.findOverlap(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(new BookingInterval(1L, 1L, booking.getStart(), booking.getEnd())));
 
         final IncorrectBookingException e = assertThrows(
                 IncorrectBookingException.class,
@@ -464,9 +462,9 @@ class BookingServiceImplTest {
 
     @Test
     void updateBooking_ShouldReturnValidApprovedRespBookingDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
         when(bookingRepository.findByBookingForOwner(anyLong(), anyLong())).thenReturn(booking);
-        when(bookingRepository.save(any(Booking.class)))
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
                 .thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
 
         RespBookingDto dbBookingDto = bookingService.updateBooking(1L, 1L, true);
@@ -481,9 +479,9 @@ class BookingServiceImplTest {
 
     @Test
     void updateBooking_ShouldReturnValidRejectedRespBookingDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
         when(bookingRepository.findByBookingForOwner(anyLong(), anyLong())).thenReturn(booking);
-        when(bookingRepository.save(any(Booking.class)))
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
                 .thenAnswer(invocationOnMock -> invocationOnMock.getArgument(0));
 
         RespBookingDto dbBookingDto = bookingService.updateBooking(1L, 1L, false);
@@ -496,9 +494,48 @@ class BookingServiceImplTest {
         assertThat(dbBookingDto.getItem(), equalTo(new ItemBookingDto(1L, "Item name")));
     }
 
+    @Test
+    void getUserBookingsByCursor_ShouldReturnFirstPageWithNextCursor() {
+        Booking nextBooking = new Booking(2L, booking.getStart().minusDays(1), booking.getEnd(),
+                Status.WAITING, item, user);
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findPageAfter(any(BookingQuery.class), isNull(), eq(2)))
+                .thenReturn(List.of(booking, nextBooking));
+
+        RespBookingPageDto page = bookingService.getUserBookingsByCursor(1L, "ALL", "", 1);
+
+        assertThat(page.getBookings(), hasSize(1));
+        assertThat(page.getBookings().get(0).getId(), equalTo(1L));
+        assertThat(page.getNextCursor(), equalTo(BookingCursor.of(booking).encode()));
+    }
+
+    @Test
+    void getOwnerBookingsByCursor_ShouldReturnLastPageWithoutNextCursor() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.now().plusDays(1), 5L);
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findPageAfter(any(BookingQuery.class), eq(cursor), eq(11)))
+                .thenReturn(List.of(booking));
+
+        RespBookingPageDto page = bookingService.getOwnerBookingsByCursor(1L, "ALL", cursor.encode(), 10);
+
+        assertThat(page.getBookings(), hasSize(1));
+        assertThat(page.getNextCursor(), is(nullValue()));
+    }
+
+    @Test
+    void getUserBookingsByCursor_ShouldThrowIncorrectBookingExceptionForMalformedCursor() {
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+
+        final IncorrectBookingException e = assertThrows(
+                IncorrectBookingException.class,
+                () -> bookingService.getUserBookingsByCursor(1L, "ALL", "???", 10));
+
+        assertThat(e.getMessage(), equalTo("Некорректный cursor=???"));
+    }
+
     @Test
     void updateBooking_ShouldThrowNotFoundExceptionForUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userExistenceService.exists(anyLong())).thenReturn(false);
 
         final NotFoundException e = assertThrows(
                 NotFoundException.class,
@@ -509,7 +546,7 @@ class BookingServiceImplTest {
 
     @Test
     void updateBooking_ShouldThrowNotFoundExceptionForBooking() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
         when(bookingRepository.findByBookingForOwner(anyLong(), anyLong())).thenReturn(null);
 
 
@@ -522,7 +559,7 @@ class BookingServiceImplTest {
 
     @Test
     void updateBooking_ShouldThrowIncorrectBookingException() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
         when(bookingRepository.findByBookingForOwner(anyLong(), anyLong())).thenReturn(booking);
 
         booking.setStatus(Status.APPROVED);
@@ -533,4 +570,52 @@ class BookingServiceImplTest {
 
         assertThat("Бронирование с id=1 уже подтверждено владельцем с id=1", equalTo(e.getMessage()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateBooking_ShouldThrowIncorrectBookingExceptionForOverlappingApprovedBooking() {
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findByBookingForOwner(anyLong(), anyLong())).thenReturn(booking);
+        when(availabilityIndex.findOverlap(1L, booking.getStart(), booking.getEnd()))
+                .thenReturn(Optional.of(new BookingInterval(2L, 1L, booking.getStart(), booking.getEnd())));
+
+        final IncorrectBookingException e = assertThrows(
+                IncorrectBookingException.class,
+                () -> bookingService.updateBooking(1L, 1L, true));
+
+        assertThat(e.getMessage(), startsWith("Item с id=1 находится в аренде"));
+        assertThat(booking.getStatus(), equalTo(Status.WAITING));
+    }
+
+    @Test
+    void updateBooking_ShouldThrowIncorrectBookingExceptionForConstraintViolation() {
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findByBookingForOwner(anyLong(), anyLong())).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", new SQLException(
+                        "ERROR: conflicting key value violates exclusion constraint \"ex_bookings_item_period\"",
+                        "23P01")));
+
+        final IncorrectBookingException e = assertThrows(
+                IncorrectBookingException.class,
+                () -> bookingService.updateBooking(1L, 1L, true));
+
+        assertThat(e.getMessage(), startsWith("Item с id=1 уже забронирован на период"));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void updateBooking_ShouldRethrowOtherConstraintViolations() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("ERROR: update or delete on table \"bookings\" violates foreign key constraint", "23503"));
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(bookingRepository.findByBookingForOwner(anyLong(), anyLong())).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(violation);
+
+        final DataIntegrityViolationException e = assertThrows(
+                DataIntegrityViolationException.class,
+                () -> bookingService.updateBooking(1L, 1L, true));
+
+        assertThat(e, sameInstance(violation));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+}
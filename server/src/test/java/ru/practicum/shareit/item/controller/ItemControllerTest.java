@@ -235,6 +235,31 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.[0]requestId", is(itemDto.getRequestId())));
     }
 
+    @Test
+    void suggestItemNames_ShouldReturn() throws Exception {
+        when(itemService.suggestItemNames("дре", 10)).thenReturn(List.of("дрель"));
+
+        mvc.perform(get("/items/suggest")
+                        .param("prefix", "дре")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$.[0]", is("дрель")));
+    }
+
+    @Test
+    void suggestItemNames_ShouldReturnBadRequestForNegativeSize() throws Exception {
+        when(itemService.suggestItemNames("дре", -1)).thenThrow(IncorrectBookingException.class);
+
+        mvc.perform(get("/items/suggest")
+                        .param("prefix", "дре")
+                        .param("size", "-1")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void createItem_ShouldReturnValidItemDto() throws Exception {
         when(itemService.createItem(anyLong(), any(ItemDto.class))).thenAnswer(invocationOnMock -> {
@@ -12,10 +12,10 @@ import ru.practicum.shareit.item.model.dto.LongItemDto;
 import ru.practicum.shareit.item.model.dto.RespCommentDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.LongHashMap;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -109,21 +109,6 @@ class ItemMapperTest {
         assertThat(buildItemDto.getRequestId(), equalTo(item.getRequest().getId()));
     }
 
-    @Test
-    void buildLongItemDto_ShouldReturnLongItemDto() {
-        LongItemDto buildLongItemDto =
-                ItemMapper.buildLongItemDto(item, List.of(lastBooking), List.of(nextBooking), List.of(commentDto));
-
-        assertThat(buildLongItemDto.getId(),equalTo(item.getId()));
-        assertThat(buildLongItemDto.getName(), equalTo(item.getName()));
-        assertThat(buildLongItemDto.getDescription(), equalTo(item.getDescription()));
-        assertThat(buildLongItemDto.getAvailable(), equalTo(item.getAvailable()));
-        assertThat(buildLongItemDto.getLastBooking(), equalTo(new BookingInfo(lastBooking.getId(), lastBooking.getBooker().getId())));
-        assertThat(buildLongItemDto.getNextBooking(), equalTo(new BookingInfo(nextBooking.getId(), nextBooking.getBooker().getId())));
-        assertThat(buildLongItemDto.getComments(), equalTo(List.of(commentDto)));
-        assertThat(buildLongItemDto.getRequestId(), equalTo(item.getRequest().getId()));
-    }
-
     @Test
     void buildItemDtoList_ShouldReturnItemDtoList() {
         List<ItemDto> buildItemDtos = ItemMapper.buildItemDtoList(List.of(item));
@@ -140,11 +125,14 @@ class ItemMapperTest {
 
     @Test
     void buildLongItemDtoList_ShouldReturnLongItemDtoList() {
-        List<LongItemDto> buildLongItemDtos = ItemMapper.buildLongItemDtoList(
-                List.of(item),
-                Map.of(item, lastBooking),
-                Map.of(item, nextBooking),
-                Map.of(item, List.of(comment)));
+        LongHashMap<BookingInfo> last = new LongHashMap<>();
+        last.put(item.getId(), new BookingInfo(lastBooking.getId(), lastBooking.getBooker().getId()));
+        LongHashMap<BookingInfo> next = new LongHashMap<>();
+        next.put(item.getId(), new BookingInfo(nextBooking.getId(), nextBooking.getBooker().getId()));
+        LongHashMap<List<Comment>> comments = new LongHashMap<>();
+        comments.put(item.getId(), List.of(comment));
+
+        List<LongItemDto> buildLongItemDtos = ItemMapper.buildLongItemDtoList(List.of(item), last, next, comments);
         assertThat(buildLongItemDtos, hasSize(1));
 
         LongItemDto buildLongItemDto = buildLongItemDtos.get(0);
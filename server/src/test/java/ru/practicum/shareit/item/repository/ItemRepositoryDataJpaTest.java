@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item.repository;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -7,16 +9,28 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemDetail;
+import ru.practicum.shareit.item.model.dto.RespCommentDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.utils.PageRequestFactory;
 
 import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 
 @DataJpaTest
 class ItemRepositoryDataJpaTest {
@@ -26,11 +40,17 @@ class ItemRepositoryDataJpaTest {
     private EntityManager entityManager;
     @Autowired
     private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private UserRepository userRepository;
 
     @AfterEach
     void tearDown() {
         entityManager.createNativeQuery("ALTER TABLE users ALTER COLUMN id RESTART WITH 1").executeUpdate();
         entityManager.createNativeQuery("ALTER TABLE items ALTER COLUMN id RESTART WITH 1").executeUpdate();
+        entityManager.createNativeQuery("ALTER TABLE bookings ALTER COLUMN id RESTART WITH 1").executeUpdate();
+        entityManager.createNativeQuery("ALTER TABLE comments ALTER COLUMN id RESTART WITH 1").executeUpdate();
     }
 
     @Test
@@ -56,4 +76,97 @@ class ItemRepositoryDataJpaTest {
         assertThat(dbItem.getUser(), equalTo(user));
         assertThat(dbItem.getRequest(), equalTo(item.getRequest()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findItemDetail_ShouldLoadItemCardWithBookingsAndCommentsInTwoStatements() {
+        User owner = em.persist(new User(null, "Owner", "owner@gmail.com"));
+        User booker = em.persist(new User(null, "Booker", "booker@gmail.com"));
+        Item item = em.persist(new Item(null, owner, "Item name", "Item description", true, null));
+        LocalDateTime now = LocalDateTime.now();
+        em.persist(new Booking(null, now.minusDays(5), now.minusDays(4), Status.APPROVED, item, booker));
+        Booking last = em.persist(new Booking(null, now.minusDays(2), now.minusDays(1), Status.APPROVED, item, booker));
+        em.persist(new Booking(null, now.minusHours(1), now.plusHours(1), Status.REJECTED, item, booker));
+        em.persist(new Booking(null, now.plusHours(2), now.plusHours(3), Status.WAITING, item, booker));
+        Booking next = em.persist(new Booking(null, now.plusDays(1), now.plusDays(2), Status.APPROVED, item, booker));
+        em.persist(new Booking(null, now.plusDays(3), now.plusDays(4), Status.APPROVED, item, booker));
+        for (int i = 0; i < 3; i++) {
+            em.persist(new Comment(null, "Comment " + i, item, booker, now.minusHours(i)));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        ItemDetail detail = itemRepository.findItemDetail(owner.getId(), item.getId(), Status.APPROVED.name(), now);
+        List<RespCommentDto> comments = commentRepository.findCommentDtosByItemId(item.getId());
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+        statistics.setStatisticsEnabled(false);
+
+        assertThat(detail.getUserId(), equalTo(owner.getId()));
+        assertThat(detail.getId(), equalTo(item.getId()));
+        assertThat(detail.getName(), equalTo("Item name"));
+        assertThat(detail.getDescription(), equalTo("Item description"));
+        assertThat(detail.getAvailable(), equalTo(true));
+        assertThat(detail.getRequestId(), is(nullValue()));
+        assertThat(detail.getLastBookingId(), equalTo(last.getId()));
+        assertThat(detail.getLastBookerId(), equalTo(booker.getId()));
+        assertThat(detail.getNextBookingId(), equalTo(next.getId()));
+        assertThat(detail.getNextBookerId(), equalTo(booker.getId()));
+        assertThat(detail.getNextBookingStart(), is(notNullValue()));
+        assertThat(detail.getOwnerId(), equalTo(owner.getId()));
+        assertThat(comments, hasSize(3));
+        assertThat(comments.get(0).getText(), equalTo("Comment 0"));
+        assertThat(comments.stream().map(RespCommentDto::getAuthorName).distinct()
+                .collect(Collectors.toList()), contains("Booker"));
+    }
+
+    @Test
+    void findItemDetail_ShouldHideBookingsFromNonOwner() {
+        User owner = em.persist(new User(null, "Owner", "owner@gmail.com"));
+        User booker = em.persist(new User(null, "Booker", "booker@gmail.com"));
+        Item item = em.persist(new Item(null, owner, "Item name", "Item description", true, null));
+        LocalDateTime now = LocalDateTime.now();
+        em.persist(new Booking(null, now.minusDays(2), now.minusDays(1), Status.APPROVED, item, booker));
+        em.persist(new Booking(null, now.plusDays(1), now.plusDays(2), Status.APPROVED, item, booker));
+
+        ItemDetail detail = itemRepository.findItemDetail(booker.getId(), item.getId(), Status.APPROVED.name(), now);
+
+        assertThat(detail.getUserId(), equalTo(booker.getId()));
+        assertThat(detail.getId(), equalTo(item.getId()));
+        assertThat(detail.getLastBookingId(), is(nullValue()));
+        assertThat(detail.getNextBookingId(), is(nullValue()));
+    }
+
+    @Test
+    void findItemDetail_ShouldReturnRowWithoutUserOrItem() {
+        User owner = em.persist(new User(null, "Owner", "owner@gmail.com"));
+        Item item = em.persist(new Item(null, owner, "Item name", "Item description", true, null));
+
+        ItemDetail noUser = itemRepository.findItemDetail(99L, item.getId(), Status.APPROVED.name(), LocalDateTime.now());
+        ItemDetail noItem = itemRepository.findItemDetail(owner.getId(), 99L, Status.APPROVED.name(), LocalDateTime.now());
+
+        assertThat(noUser.getUserId(), is(nullValue()));
+        assertThat(noUser.getId(), equalTo(item.getId()));
+        assertThat(noItem.getUserId(), equalTo(owner.getId()));
+        assertThat(noItem.getId(), is(nullValue()));
+    }
+
+    @Test
+    void findItemDetail_ShouldReturnRowWithoutSoftDeletedUser() {
+        User owner = em.persist(new User(null, "Owner", "owner@gmail.com"));
+        User deleted = em.persist(new User(null, "Deleted", "deleted@gmail.com"));
+        Item item = em.persist(new Item(null, owner, "Item name", "Item description", true, null));
+        userRepository.markDeleted(deleted.getId());
+
+        ItemDetail detail = itemRepository.findItemDetail(deleted.getId(), item.getId(), Status.APPROVED.name(),
+                LocalDateTime.now());
+
+        assertThat(detail.getUserId(), is(nullValue()));
+        assertThat(detail.getId(), equalTo(item.getId()));
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FullTextItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private FullTextItemSearchEngine searchEngine;
+
+    @Test
+    void toTsQuery_ShouldJoinWordsAsPrefixes() {
+        assertThat(FullTextItemSearchEngine.toTsQuery("Дрель, ударная!"), equalTo("Дрель:* & ударная:*"));
+    }
+
+    @Test
+    void toTsQuery_ShouldDropTsQueryOperators() {
+        assertThat(FullTextItemSearchEngine.toTsQuery("drill | !saw & (x:*)"), equalTo("drill:* & saw:* & x:*"));
+    }
+
+    @Test
+    void search_ShouldQueryRepositoryWithPageOfRequestedSize() {
+        Item item = Item.builder().id(1L).name("Дрель").available(true).build();
+        when(itemRepository.findByFullText("дрел:*", PageRequest.of(2, 5))).thenReturn(List.of(item));
+
+        assertThat(searchEngine.search("дрел", 10, 5), contains(ItemMapper.buildItemDto(item)));
+    }
+
+    @Test
+    void search_ShouldReturnEmptyListForTextWithoutWords() {
+        assertThat(searchEngine.search(" ,.!", 0, 10), empty());
+        verifyNoInteractions(itemRepository);
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.event.BookingApprovedEvent;
+import ru.practicum.shareit.booking.event.BookingDeletedEvent;
+import ru.practicum.shareit.booking.model.BookingInterval;
+import ru.practicum.shareit.item.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.event.CommentDeletedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.item.model.dto.LongItemDto;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+class ItemDetailCacheTest {
+    private static final Long OWNER_ID = 1L;
+    private static final Long USER_ID = 2L;
+    private static final Long OTHER_USER_ID = 3L;
+
+    private final ItemDetailCacheProperties properties = new ItemDetailCacheProperties();
+    private final ItemDetailCache cache = new ItemDetailCache(properties, new SimpleMeterRegistry());
+    private final LongItemDto ownerView = LongItemDto.builder().id(1L).name("Owner view").build();
+    private final LongItemDto publicView = LongItemDto.builder().id(1L).name("Public view").build();
+
+    @Test
+    void get_ShouldSeparateOwnerAndPublicViews() {
+        cache.put(OWNER_ID, OWNER_ID, ownerView, null, cache.generation());
+        assertThat(cache.get(OWNER_ID, 1L), is(ownerView));
+        assertThat(cache.get(USER_ID, 1L), is(nullValue()));
+
+        cache.put(USER_ID, OWNER_ID, publicView, null, cache.generation());
+        assertThat(cache.get(USER_ID, 1L), is(publicView));
+        assertThat(cache.get(OTHER_USER_ID, 1L), is(publicView));
+        assertThat(cache.get(OWNER_ID, 1L), is(ownerView));
+    }
+
+    @Test
+    void get_ShouldExpireOwnerViewAtNextBookingStart() throws InterruptedException {
+        LocalDateTime nextBookingStart = LocalDateTime.now().plusNanos(200_000_000);
+        cache.put(OWNER_ID, OWNER_ID, ownerView, nextBookingStart, cache.generation());
+        cache.put(USER_ID, OWNER_ID, publicView, nextBookingStart, cache.generation());
+        assertThat(cache.get(OWNER_ID, 1L), is(ownerView));
+
+        Thread.sleep(300);
+
+        assertThat(cache.get(OWNER_ID, 1L), is(nullValue()));
+        assertThat(cache.get(USER_ID, 1L), is(publicView));
+    }
+
+    @Test
+    void onBookingDeleted_ShouldEvictOnlyOwnerView() {
+        putBothViews();
+
+        cache.onBookingDeleted(new BookingDeletedEvent(1L, 1L));
+
+        assertThat(cache.get(OWNER_ID, 1L), is(nullValue()));
+        assertThat(cache.get(USER_ID, 1L), is(publicView));
+    }
+
+    @Test
+    void put_ShouldSkipOwnerViewWhenNextBookingHasAlreadyStarted() {
+        cache.put(OWNER_ID, OWNER_ID, ownerView, LocalDateTime.now().minusSeconds(1), cache.generation());
+
+        assertThat(cache.get(OWNER_ID, 1L), is(nullValue()));
+    }
+
+    @Test
+    void put_ShouldSkipViewLoadedBeforeEviction() {
+        long generation = cache.generation();
+        cache.evict(1L);
+
+        cache.put(OWNER_ID, OWNER_ID, ownerView, null, generation);
+
+        assertThat(cache.get(OWNER_ID, 1L), is(nullValue()));
+    }
+
+    @Test
+    void onEvents_ShouldEvictItemViews() {
+        putBothViews();
+        cache.onItemSaved(new ItemSavedEvent(new ItemDto(1L, "Item", "Description", true, null)));
+        assertThat(cache.get(OWNER_ID, 1L), is(nullValue()));
+        assertThat(cache.get(USER_ID, 1L), is(nullValue()));
+
+        putBothViews();
+        cache.onCommentCreated(new CommentCreatedEvent(1L));
+        assertThat(cache.get(OWNER_ID, 1L), is(nullValue()));
+        assertThat(cache.get(USER_ID, 1L), is(nullValue()));
+
+        putBothViews();
+        cache.onCommentDeleted(new CommentDeletedEvent(1L));
+        assertThat(cache.get(OWNER_ID, 1L), is(nullValue()));
+        assertThat(cache.get(USER_ID, 1L), is(nullValue()));
+
+        putBothViews();
+        cache.onItemDeleted(new ItemDeletedEvent(1L));
+        assertThat(cache.get(OWNER_ID, 1L), is(nullValue()));
+        assertThat(cache.get(USER_ID, 1L), is(nullValue()));
+    }
+
+    @Test
+    void onBookingApproved_ShouldEvictOnlyOwnerView() {
+        putBothViews();
+
+        cache.onBookingApproved(new BookingApprovedEvent(
+                new BookingInterval(1L, 1L, LocalDateTime.now(), LocalDateTime.now().plusDays(1))));
+
+        assertThat(cache.get(OWNER_ID, 1L), is(nullValue()));
+        assertThat(cache.get(USER_ID, 1L), is(publicView));
+    }
+
+    @Test
+    void get_ShouldReturnNullWhenDisabled() {
+        properties.setEnabled(false);
+        ItemDetailCache disabledCache = new ItemDetailCache(properties, new SimpleMeterRegistry());
+
+        disabledCache.put(OWNER_ID, OWNER_ID, ownerView, null, disabledCache.generation());
+
+        assertThat(disabledCache.get(OWNER_ID, 1L), is(nullValue()));
+    }
+
+    private void putBothViews() {
+        cache.put(OWNER_ID, OWNER_ID, ownerView, null, cache.generation());
+        cache.put(USER_ID, OWNER_ID, publicView, null, cache.generation());
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemNameSuggesterTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private ItemNameSuggester suggester;
+
+    @Test
+    void suggest_ShouldCompleteLastWordByPopularity() {
+        when(itemRepository.findByIdGreaterThan(0L, PageRequest.of(0, 1000, Sort.by("id")))).thenReturn(List.of(
+                item(1L, "Дрель ударная", true),
+                item(2L, "Дрель-шуруповёрт", true),
+                item(3L, "Древесина", true),
+                item(4L, "Дрезина", false)));
+
+        suggester.load();
+
+        assertThat(suggester.suggest("ДРе", 10), contains("дрель", "древесина"));
+        assertThat(suggester.suggest("Дрель у", 10), contains("дрель ударная"));
+        assertThat(suggester.suggest("дре", 1), contains("дрель"));
+        assertThat(suggester.suggest("дрель ", 10), empty());
+    }
+
+    @Test
+    void onItemSaved_ShouldReplaceWordsOfItem() {
+        when(itemRepository.findByIdGreaterThan(0L, PageRequest.of(0, 1000, Sort.by("id"))))
+                .thenReturn(List.of(item(1L, "Дрель", true)));
+        suggester.load();
+
+        suggester.onItemSaved(new ItemSavedEvent(new ItemDto(1L, "Дрезина", "", true, null)));
+        assertThat(suggester.suggest("дре", 10), contains("дрезина"));
+
+        suggester.onItemSaved(new ItemSavedEvent(new ItemDto(1L, "Дрезина", "", false, null)));
+        assertThat(suggester.suggest("дре", 10), empty());
+    }
+
+    @Test
+    void load_ShouldApplyChangesMadeDuringScanAfterSwap() {
+        when(itemRepository.findByIdGreaterThan(0L, PageRequest.of(0, 1000, Sort.by("id")))).thenAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> suggester.onItemSaved(
+                    new ItemSavedEvent(new ItemDto(1L, "Дрезина", "", true, null)))).get(5, TimeUnit.SECONDS);
+            assertThat(suggester.suggest("дре", 10), empty());
+            return List.of(item(1L, "Дрель", true));
+        });
+
+        suggester.load();
+
+        assertThat(suggester.suggest("дре", 10), contains("дрезина"));
+    }
+
+    private static Item item(Long id, String name, boolean available) {
+        return Item.builder().id(id).name(name).description("").available(available).build();
+    }
+}
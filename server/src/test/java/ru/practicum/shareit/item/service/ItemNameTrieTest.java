@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+class ItemNameTrieTest {
+    private final ItemNameTrie trie = new ItemNameTrie(3);
+
+    @Test
+    void suggest_ShouldReturnMostPopularWordsWithPrefix() {
+        trie.add("дрель", 2);
+        trie.add("дрезина", 1);
+        trie.add("древесина", 3);
+        trie.add("душ", 5);
+        trie.add("пила", 4);
+
+        assertThat(trie.suggest("дре", 10), contains("древесина", "дрель", "дрезина"));
+        assertThat(trie.suggest("д", 10), contains("душ", "древесина", "дрель"));
+        assertThat(trie.suggest("д", 1), contains("душ"));
+        assertThat(trie.suggest("дрел", 10), contains("дрель"));
+        assertThat(trie.suggest("дрелька", 10), empty());
+        assertThat(trie.suggest("дру", 10), empty());
+    }
+
+    @Test
+    void add_ShouldKeepWordThatIsPrefixOfAnotherWord() {
+        trie.add("пила", 1);
+        trie.add("пил", 1);
+        trie.add("пилка", 1);
+
+        assertThat(trie.suggest("пил", 10), contains("пил", "пила", "пилка"));
+        assertThat(trie.count("пил"), equalTo(1));
+        assertThat(trie.count("пи"), equalTo(0));
+    }
+
+    @Test
+    void add_ShouldRemoveWordWhenPopularityDropsToZero() {
+        trie.add("дрель", 1);
+        trie.add("дрезина", 1);
+
+        trie.add("дрель", -1);
+
+        assertThat(trie.suggest("др", 10), contains("дрезина"));
+        assertThat(trie.count("дрель"), equalTo(0));
+
+        trie.add("дрезина", -1);
+        assertThat(trie.suggest("д", 10), empty());
+    }
+
+    @Test
+    void suggest_ShouldMatchBruteForceAfterRandomUpdates() {
+        Random random = new Random(7);
+        Map<String, Integer> counts = new HashMap<>();
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            words.add(randomWord(random));
+        }
+
+        for (int i = 0; i < 5000; i++) {
+            String word = words.get(random.nextInt(words.size()));
+            int count = counts.getOrDefault(word, 0);
+            int delta = count > 0 && random.nextBoolean() ? -1 : 1;
+            counts.put(word, count + delta);
+            trie.add(word, delta);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            String prefix = randomWord(random).substring(0, 1 + random.nextInt(2));
+            List<String> expected = counts.entrySet().stream()
+                    .filter(entry -> entry.getValue() > 0 && entry.getKey().startsWith(prefix))
+                    .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .map(Map.Entry::getKey)
+                    .limit(3)
+                    .collect(Collectors.toList());
+
+            assertThat(prefix, trie.suggest(prefix, 3), equalTo(expected));
+        }
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 2 + random.nextInt(5);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('а' + random.nextInt(4)));
+        }
+        return word.toString();
+    }
+}
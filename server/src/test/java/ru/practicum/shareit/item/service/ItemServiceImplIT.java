@@ -1,17 +1,21 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.BookingInfo;
 import ru.practicum.shareit.booking.model.dto.ReqBookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.item.model.dto.LongItemDto;
 import ru.practicum.shareit.item.model.dto.ReqCommentDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
@@ -72,6 +76,7 @@ class ItemServiceImplIT {
         em.createNativeQuery("ALTER TABLE users ALTER COLUMN id RESTART WITH 1").executeUpdate();
         em.createNativeQuery("ALTER TABLE items ALTER COLUMN id RESTART WITH 1").executeUpdate();
         em.createNativeQuery("ALTER TABLE bookings ALTER COLUMN id RESTART WITH 1").executeUpdate();
+        em.createNativeQuery("ALTER TABLE comments ALTER COLUMN id RESTART WITH 1").executeUpdate();
     }
 
     @Test
@@ -99,6 +104,38 @@ class ItemServiceImplIT {
         assertThat(dbItem2.getRequest(), is(nullValue()));
     }
 
+    @Test
+    void getItemById_ShouldReturnBookingsAndCommentsInTwoStatements() {
+        User dbUser1 = userService.createUser(user1);
+        User dbUser2 = userService.createUser(user2);
+        ItemDto dbItem = itemService.createItem(dbUser1.getId(), itemDto1);
+        bookingService.createBooking(dbUser2.getId(), reqBookingDto);
+        bookingService.updateBooking(dbUser1.getId(), dbItem.getId(), true);
+        itemService.createComment(dbUser2.getId(), dbItem.getId(), reqCommentDto);
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        LongItemDto ownerItem = itemService.getItemById(dbUser1.getId(), dbItem.getId());
+
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+        statistics.setStatisticsEnabled(false);
+
+        assertThat(ownerItem.getLastBooking(), equalTo(new BookingInfo(1L, dbUser2.getId())));
+        assertThat(ownerItem.getNextBooking(), is(nullValue()));
+        assertThat(ownerItem.getComments(), hasSize(1));
+        assertThat(ownerItem.getComments().get(0).getAuthorName(), equalTo("User2"));
+
+        LongItemDto bookerItem = itemService.getItemById(dbUser2.getId(), dbItem.getId());
+        assertThat(bookerItem.getLastBooking(), is(nullValue()));
+        assertThat(bookerItem.getComments(), hasSize(1));
+    }
+
     @Test
     void getAllItemsByUser_ShouldReturnItemListFromDataBase() {
         User dbUser1 = userService.createUser(user1);
@@ -6,15 +6,23 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingInfo;
+import ru.practicum.shareit.booking.model.NearestBooking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.IncorrectBookingException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemDetail;
 import ru.practicum.shareit.item.model.dto.ItemDto;
 import ru.practicum.shareit.item.model.dto.LongItemDto;
 import ru.practicum.shareit.item.model.dto.ReqCommentDto;
@@ -25,17 +33,24 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceService;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 // Если внедрять зависимости непосредственно в не final поля класса, то можно создать конструктор без аргументов.
@@ -51,6 +66,16 @@ class ItemServiceImplTest {
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private ItemNameSuggester itemNameSuggester;
+    @Mock
+    private ItemDetailCache itemDetailCache;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private UserExistenceService userExistenceService;
     @InjectMocks
     private ItemServiceImpl itemService;
     private final Item item = new Item();
@@ -114,18 +139,9 @@ class ItemServiceImplTest {
 
     @Test
     void getItemById_ShouldReturnValidFullLongItemDto() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository
-                .findByItemUserIdAndItemIdAndStatusAndStartBefore(
-                        anyLong(), anyLong(), any(Status.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(lastBooking));
-        when(bookingRepository
-                .findByItemUserIdAndItemIdAndStatusAndStartAfter(
-                        anyLong(), anyLong(), any(Status.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(nextBooking));
-
-        when(commentRepository.findByItemId(anyLong())).thenReturn(List.of(comment));
+        when(itemRepository.findItemDetail(eq(1L), eq(1L), eq("APPROVED"), any(LocalDateTime.class)))
+                .thenReturn(itemDetail(user.getId(), item, lastBooking, nextBooking));
+        when(commentRepository.findCommentDtosByItemId(1L)).thenReturn(List.of(CommentMapper.buildCommentDto(comment)));
 
         LongItemDto dbItemDto = itemService.getItemById(1L, 1L);
 
@@ -133,27 +149,41 @@ class ItemServiceImplTest {
         assertThat(dbItemDto.getName(), equalTo("Item name"));
         assertThat(dbItemDto.getDescription(), equalTo("Item description"));
         assertThat(dbItemDto.getAvailable(), equalTo(true));
-        assertThat(dbItemDto.getLastBooking(), is(notNullValue()));
-        assertThat(dbItemDto.getNextBooking(), is(notNullValue()));
+        assertThat(dbItemDto.getLastBooking(), equalTo(new BookingInfo(1L, null)));
+        assertThat(dbItemDto.getNextBooking(), equalTo(new BookingInfo(2L, null)));
         assertThat(dbItemDto.getComments(), hasSize(1));
         assertThat(dbItemDto.getRequestId(), equalTo(1L));
+        verify(itemDetailCache).put(1L, 1L, dbItemDto, nextBooking.getStart(), 0L);
     }
 
     @Test
-    void getItemById_ShouldReturnValidLongItemDtoWithNoBookingsCommentsAndRequests() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository
-                .findByItemUserIdAndItemIdAndStatusAndStartBefore(
-                        anyLong(), anyLong(), any(Status.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
-        when(bookingRepository
-                .findByItemUserIdAndItemIdAndStatusAndStartAfter(
-                        anyLong(), anyLong(), any(Status.class), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(Collections.emptyList());
-        when(commentRepository.findByItemId(anyLong())).thenReturn(Collections.emptyList());
+    void getItemById_ShouldReturnCachedLongItemDtoWithoutLoadingItem() {
+        LongItemDto cachedItemDto = LongItemDto.builder().id(1L).name("Item name").build();
+        when(itemDetailCache.get(1L, 1L)).thenReturn(cachedItemDto);
+        when(userExistenceService.exists(1L)).thenReturn(true);
+
+        assertThat(itemService.getItemById(1L, 1L), is(cachedItemDto));
+        verify(itemRepository, never()).findItemDetail(anyLong(), anyLong(), anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void getItemById_ShouldThrowNotFoundExceptionForUserOfCachedItem() {
+        when(itemDetailCache.get(1L, 1L)).thenReturn(new LongItemDto());
+        when(userExistenceService.exists(1L)).thenReturn(false);
+
+        final NotFoundException e = assertThrows(
+                NotFoundException.class,
+                () -> itemService.getItemById(1L, 1L));
+
+        assertThat("Пользователя с таким id=1 нет", equalTo(e.getMessage()));
+    }
 
+    @Test
+    void getItemById_ShouldReturnValidLongItemDtoWithNoBookingsCommentsAndRequests() {
         item.setRequest(null);
+        when(itemRepository.findItemDetail(eq(1L), eq(1L), eq("APPROVED"), any(LocalDateTime.class)))
+                .thenReturn(itemDetail(user.getId(), item, null, null));
+        when(commentRepository.findCommentDtosByItemId(1L)).thenReturn(Collections.emptyList());
 
         LongItemDto dbItemDto = itemService.getItemById(1L, 1L);
 
@@ -169,19 +199,21 @@ class ItemServiceImplTest {
 
     @Test
     void getItemById_ShouldThrowNotFoundExceptionForItem() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(itemRepository.findItemDetail(eq(1L), eq(1L), eq("APPROVED"), any(LocalDateTime.class)))
+                .thenReturn(itemDetail(user.getId(), null, null, null));
 
         final NotFoundException e = assertThrows(
                 NotFoundException.class,
                 () -> itemService.getItemById(1L, 1L));
 
         assertThat("Вещи с таким id=1 нет", equalTo(e.getMessage()));
+        verify(commentRepository, never()).findCommentDtosByItemId(anyLong());
     }
 
     @Test
     void getItemById_ShouldThrowNotFoundExceptionForUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(itemRepository.findItemDetail(eq(1L), eq(1L), eq("APPROVED"), any(LocalDateTime.class)))
+                .thenReturn(itemDetail(null, item, null, null));
 
         final NotFoundException e = assertThrows(
                 NotFoundException.class,
@@ -192,16 +224,10 @@ class ItemServiceImplTest {
 
     @Test
     void getAllItemsByUser_ShouldReturnListOfLongItemDtos() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
         when(itemRepository.findByUserId(anyLong(), any(Pageable.class))).thenReturn(List.of(item));
-        when(bookingRepository
-                .findByItemUserIdAndStatusAndStartBefore(
-                        anyLong(), any(Status.class), any(LocalDateTime.class), any(Sort.class)))
-                .thenReturn(List.of(lastBooking));
-        when(bookingRepository
-                .findByItemUserIdAndStatusAndStartAfter(
-                        anyLong(), any(Status.class), any(LocalDateTime.class), any(Sort.class)))
-                .thenReturn(List.of(nextBooking));
+        when(bookingRepository.findNearestBookings(eq(Set.of(1L)), eq("APPROVED"), any(LocalDateTime.class)))
+                .thenReturn(List.of(nearestBooking(lastBooking, true), nearestBooking(nextBooking, false)));
         when(commentRepository.findByItemIdIn(anySet())).thenReturn(List.of(comment));
 
         List<LongItemDto> dbItemDtos = itemService.getAllItemsByUser(1L, 0, 10);
@@ -213,23 +239,17 @@ class ItemServiceImplTest {
         assertThat(dbItemDto.getName(), equalTo("Item name"));
         assertThat(dbItemDto.getDescription(), equalTo("Item description"));
         assertThat(dbItemDto.getAvailable(), equalTo(true));
-        assertThat(dbItemDto.getLastBooking(), is(notNullValue()));
-        assertThat(dbItemDto.getNextBooking(), is(notNullValue()));
+        assertThat(dbItemDto.getLastBooking().getId(), equalTo(lastBooking.getId()));
+        assertThat(dbItemDto.getNextBooking().getId(), equalTo(nextBooking.getId()));
         assertThat(dbItemDto.getComments(), hasSize(1));
         assertThat(dbItemDto.getRequestId(), equalTo(1L));
     }
 
     @Test
     void getAllItemsByUser_ShouldReturnListOfLongItemDtosWithNoBookingsCommentsAndRequests() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
         when(itemRepository.findByUserId(anyLong(), any(Pageable.class))).thenReturn(List.of(item));
-        when(bookingRepository
-                .findByItemUserIdAndStatusAndStartBefore(
-                        anyLong(), any(Status.class), any(LocalDateTime.class), any(Sort.class)))
-                .thenReturn(Collections.emptyList());
-        when(bookingRepository
-                .findByItemUserIdAndStatusAndStartAfter(
-                        anyLong(), any(Status.class), any(LocalDateTime.class), any(Sort.class)))
+        when(bookingRepository.findNearestBookings(eq(Set.of(1L)), eq("APPROVED"), any(LocalDateTime.class)))
                 .thenReturn(Collections.emptyList());
         when(commentRepository.findByItemIdIn(anySet())).thenReturn(Collections.emptyList());
 
@@ -252,7 +272,7 @@ class ItemServiceImplTest {
 
     @Test
     void getAllItemsByUser_ShouldThrowNotFoundExceptionForUser() {
-        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(userExistenceService.exists(anyLong())).thenReturn(false);
 
         final NotFoundException e = assertThrows(
                 NotFoundException.class,
@@ -263,7 +283,7 @@ class ItemServiceImplTest {
 
     @Test
     void searchAvailableItems_ShouldReturnNonEmptyItemDtoList() {
-        when(itemRepository.findByText(anyString(), any(Pageable.class))).thenReturn(List.of(item));
+        when(itemSearchEngine.search("name", 0, 10)).thenReturn(List.of(ItemMapper.buildItemDto(item)));
 
         List<ItemDto> dbItemDtos = itemService.searchAvailableItems("name", 0, 10);
         assertThat(dbItemDtos, hasSize(1));
@@ -283,6 +303,21 @@ class ItemServiceImplTest {
         assertThat(dbItemDtos, hasSize(0));
     }
 
+    @Test
+    void suggestItemNames_ShouldReturnSuggesterResult() {
+        when(itemNameSuggester.suggest("ite", 5)).thenReturn(List.of("item"));
+
+        assertThat(itemService.suggestItemNames("ite", 5), equalTo(List.of("item")));
+    }
+
+    @Test
+    void suggestItemNames_ShouldThrowIncorrectBookingExceptionForSizeOutOfRange() {
+        assertThrows(IncorrectBookingException.class, () -> itemService.suggestItemNames("ite", -1));
+        assertThrows(IncorrectBookingException.class, () -> itemService.suggestItemNames("ite", 0));
+        assertThrows(IncorrectBookingException.class, () -> itemService.suggestItemNames("ite", 11));
+        verifyNoInteractions(itemNameSuggester);
+    }
+
     @Test
     void createComment_ShouldReturnValidRespCommentDto() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(author));
@@ -303,6 +338,8 @@ class ItemServiceImplTest {
         assertThat(dbComment.getText(), equalTo("Text comment"));
         assertThat(dbComment.getCreated(), is(notNullValue()));
         assertThat(dbComment.getAuthorName(), equalTo("Author"));
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof CommentCreatedEvent && ((CommentCreatedEvent) event).getItemId().equals(1L)));
     }
 
     @Test
@@ -357,6 +394,8 @@ class ItemServiceImplTest {
         itemDto.setRequestId(1L);
         ItemDto createItemDto = itemService.createItem(1L, itemDto);
 
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof ItemSavedEvent
+                && ((ItemSavedEvent) event).getItem().equals(createItemDto)));
         assertThat(createItemDto.getId(), equalTo(1L));
         assertThat(createItemDto.getName(), equalTo("Item name"));
         assertThat(createItemDto.getDescription(), equalTo("Item description"));
@@ -471,4 +510,36 @@ class ItemServiceImplTest {
 
         assertThat("У пользователя нет вещи c id=1", equalTo(e.getMessage()));
     }
-}
\ No newline at end of file
+
+    private NearestBooking nearestBooking(Booking booking, boolean past) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", booking.getId());
+        row.put("itemId", booking.getItem().getId());
+        row.put("bookerId", booking.getBooker().getId());
+        row.put("past", past);
+        return new SpelAwareProxyProjectionFactory().createProjection(NearestBooking.class, row);
+    }
+
+    private ItemDetail itemDetail(Long userId, Item item, Booking last, Booking next) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("userId", userId);
+        if (item != null) {
+            row.put("id", item.getId());
+            row.put("ownerId", item.getUser().getId());
+            row.put("name", item.getName());
+            row.put("description", item.getDescription());
+            row.put("available", item.getAvailable());
+            row.put("requestId", item.getRequest() == null ? null : item.getRequest().getId());
+        }
+        if (last != null) {
+            row.put("lastBookingId", last.getId());
+            row.put("lastBookerId", last.getBooker().getId());
+        }
+        if (next != null) {
+            row.put("nextBookingId", next.getId());
+            row.put("nextBookerId", next.getBooker().getId());
+            row.put("nextBookingStart", next.getStart());
+        }
+        return new SpelAwareProxyProjectionFactory().createProjection(ItemDetail.class, row);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SubstringItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private SubstringItemSearchEngine searchEngine;
+
+    @Test
+    void search_ShouldQueryRepositoryWithPageSortedById() {
+        Item item = Item.builder().id(1L).name("Дрель").available(true).build();
+        when(itemRepository.findByText("дрель", PageRequest.of(2, 5, Sort.by("id")))).thenReturn(List.of(item));
+
+        assertThat(searchEngine.search("дрель", 10, 5), contains(ItemMapper.buildItemDto(item)));
+    }
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+class TrigramIndexTest {
+    private final TrigramIndex index = new TrigramIndex();
+
+    @Test
+    void search_ShouldFindSubstringOfNameOrDescriptionIgnoringCase() {
+        index.put(item(1L, "Дрель", "Простая дрель", true));
+        index.put(item(2L, "Отвёртка", "Аккумуляторная", true));
+        index.put(item(3L, "Пила", "Для ДРЕВесины", true));
+
+        assertThat(ids(index.search("дРе", 0, 10)), contains(1L, 3L));
+        assertThat(ids(index.search("КУМУЛ", 0, 10)), contains(2L));
+        assertThat(ids(index.search("ель п", 0, 10)), empty());
+        assertThat(ids(index.search("пила", 0, 10)), contains(3L));
+    }
+
+    @Test
+    void search_ShouldCheckAllItemsForQueryShorterThanTrigram() {
+        index.put(item(1L, "Дрель", "Простая", true));
+        index.put(item(2L, "Пила", "Ручная", true));
+
+        assertThat(ids(index.search("р", 0, 10)), contains(1L, 2L));
+        assertThat(ids(index.search("ил", 0, 10)), contains(2L));
+    }
+
+    @Test
+    void search_ShouldReturnPageInIdOrder() {
+        for (long id = 10; id > 0; id--) {
+            index.put(item(id, "Дрель " + id, "", true));
+        }
+
+        assertThat(ids(index.search("дрель", 3, 3)), contains(4L, 5L, 6L));
+        assertThat(ids(index.search("дрель", 9, 3)), contains(10L));
+    }
+
+    @Test
+    void put_ShouldReplaceTextAndRemoveUnavailableItem() {
+        index.put(item(1L, "Дрель", "Простая", true));
+        index.put(item(2L, "Дрель", "Ударная", true));
+
+        index.put(item(1L, "Перфоратор", "Простой", true));
+        index.put(item(2L, "Дрель", "Ударная", false));
+
+        assertThat(ids(index.search("дрель", 0, 10)), empty());
+        assertThat(ids(index.search("перф", 0, 10)), contains(1L));
+        assertThat(index.size(), equalTo(1));
+
+        index.put(item(2L, "Дрель", "Ударная", true));
+        assertThat(ids(index.search("дрель", 0, 10)), contains(2L));
+    }
+
+    @Test
+    void search_ShouldMatchBruteForceSubstringSearch() {
+        Random random = new Random(42);
+        String alphabet = "абвгдеABCDE ";
+        List<ItemDto> items = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            ItemDto item = item(id, randomText(random, alphabet, 12), randomText(random, alphabet, 30), random.nextInt(4) > 0);
+            items.add(item);
+            index.put(item);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            String query = randomText(random, alphabet, 1 + random.nextInt(4));
+            String upper = query.toUpperCase(Locale.ROOT);
+            List<Long> expected = items.stream()
+                    .filter(ItemDto::getAvailable)
+                    .filter(item -> item.getName().toUpperCase(Locale.ROOT).contains(upper)
+                            || item.getDescription().toUpperCase(Locale.ROOT).contains(upper))
+                    .map(ItemDto::getId)
+                    .limit(20)
+                    .collect(Collectors.toList());
+
+            assertThat(query, ids(index.search(query, 0, 20)), equalTo(expected));
+        }
+    }
+
+    private static ItemDto item(Long id, String name, String description, boolean available) {
+        return new ItemDto(id, name, description, available, null);
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrigramItemSearchEngineTest {
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private TrigramItemSearchEngine searchEngine;
+    private final Item drill = Item.builder().id(1L).name("Дрель").description("Простая дрель").available(true).build();
+
+    @Test
+    void search_ShouldQueryDataBaseBeforeIndexIsLoaded() {
+        when(itemRepository.findByText("дрель", PageRequest.of(0, 10, Sort.by("id")))).thenReturn(List.of(drill));
+
+        assertThat(searchEngine.search("дрель", 0, 10), contains(ItemMapper.buildItemDto(drill)));
+    }
+
+    @Test
+    void load_ShouldIndexItemsInBatchesWithoutQueryingDataBaseOnSearch() {
+        List<Item> firstBatch = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            firstBatch.add(Item.builder().id(id).name("Пила " + id).description("").available(true).build());
+        }
+        when(itemRepository.findByIdGreaterThan(0L, PageRequest.of(0, 1000, Sort.by("id")))).thenReturn(firstBatch);
+        when(itemRepository.findByIdGreaterThan(1000L, PageRequest.of(0, 1000, Sort.by("id"))))
+                .thenReturn(List.of(Item.builder().id(1001L).name("Дрель").description("").available(true).build()));
+
+        searchEngine.load();
+
+        assertThat(searchEngine.search("дрел", 0, 10).stream().map(ItemDto::getId)
+                .collect(Collectors.toList()), contains(1001L));
+        verify(itemRepository, never()).findByText(anyString(), any());
+    }
+
+    @Test
+    void load_ShouldApplyChangesMadeDuringScanAfterSwap() {
+        Item saw = Item.builder().id(2L).name("Пила").description("").available(true).build();
+        when(itemRepository.findByIdGreaterThan(0L, PageRequest.of(0, 1000, Sort.by("id")))).thenAnswer(invocation -> {
+            // Изменения из другого потока во время чтения снимка не ждут его окончания
+            CompletableFuture.runAsync(() -> {
+                searchEngine.onItemSaved(new ItemSavedEvent(ItemMapper.buildItemDto(saw)));
+                searchEngine.onItemDeleted(new ItemDeletedEvent(drill.getId()));
+            }).get(5, TimeUnit.SECONDS);
+            return List.of(drill);
+        });
+
+        searchEngine.load();
+
+        assertThat(searchEngine.search("пила", 0, 10), contains(ItemMapper.buildItemDto(saw)));
+        assertThat(searchEngine.search("дрель", 0, 10), empty());
+    }
+
+    @Test
+    void onItemSaved_ShouldUpdateIndex() {
+        when(itemRepository.findByIdGreaterThan(0L, PageRequest.of(0, 1000, Sort.by("id"))))
+                .thenReturn(Collections.emptyList());
+        searchEngine.load();
+        ItemDto drillDto = ItemMapper.buildItemDto(drill);
+
+        searchEngine.onItemSaved(new ItemSavedEvent(drillDto));
+        assertThat(searchEngine.search("дрель", 0, 10), contains(drillDto));
+
+        drillDto.setAvailable(false);
+        searchEngine.onItemSaved(new ItemSavedEvent(drillDto));
+        assertThat(searchEngine.search("дрель", 0, 10), empty());
+    }
+
+    @Test
+    void onItemDeleted_ShouldRemoveItemFromIndex() {
+        when(itemRepository.findByIdGreaterThan(0L, PageRequest.of(0, 1000, Sort.by("id"))))
+                .thenReturn(List.of(drill));
+        searchEngine.load();
+
+        searchEngine.onItemDeleted(new ItemDeletedEvent(drill.getId()));
+
+        assertThat(searchEngine.search("дрель", 0, 10), empty());
+    }
+}
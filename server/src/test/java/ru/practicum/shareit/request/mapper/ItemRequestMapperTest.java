@@ -2,10 +2,12 @@ package ru.practicum.shareit.request.mapper;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.model.dto.ItemDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.model.dto.ReqItemRequestDto;
 import ru.practicum.shareit.request.model.dto.RespItemRequestDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.LongHashMap;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -56,14 +58,25 @@ class ItemRequestMapperTest {
 
     @Test
     void buildItemRequestDto_ShouldReturnRespItemRequestDtoList() {
-        List<RespItemRequestDto> buildRespItemRequestDtos = ItemRequestMapper.buildItemRequestDto(List.of(itemRequest));
-        assertThat(buildRespItemRequestDtos, hasSize(1));
+        ItemRequest otherItemRequest = new ItemRequest();
+        otherItemRequest.setId(2L);
+        otherItemRequest.setDescription("Other description");
+        ItemDto itemDto = new ItemDto(1L, "Item", "Item description", true, 1L);
+        LongHashMap<List<ItemDto>> items = new LongHashMap<>();
+        items.put(1L, List.of(itemDto));
+
+        List<RespItemRequestDto> buildRespItemRequestDtos =
+                ItemRequestMapper.buildItemRequestDto(List.of(itemRequest, otherItemRequest), items);
+        assertThat(buildRespItemRequestDtos, hasSize(2));
 
         RespItemRequestDto buildRespItemRequestDto = buildRespItemRequestDtos.get(0);
 
         assertThat(buildRespItemRequestDto.getId(), equalTo(itemRequest.getId()));
         assertThat(buildRespItemRequestDto.getDescription(), equalTo(itemRequest.getDescription()));
         assertEquals(itemRequest.getCreated(), buildRespItemRequestDto.getCreated());
-        assertThat(buildRespItemRequestDto.getItems(), equalTo(itemRequest.getItems()));
+        assertThat(buildRespItemRequestDto.getItems(), contains(itemDto));
+
+        assertThat(buildRespItemRequestDtos.get(1).getId(), equalTo(2L));
+        assertThat(buildRespItemRequestDtos.get(1).getItems(), is(empty()));
     }
 }
\ No newline at end of file
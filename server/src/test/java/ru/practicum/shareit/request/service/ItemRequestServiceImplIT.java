@@ -1,14 +1,19 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.model.dto.ReqItemRequestDto;
+import ru.practicum.shareit.request.model.dto.RespItemRequestDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -26,6 +31,7 @@ import static org.hamcrest.Matchers.*;
 class ItemRequestServiceImplIT {
     private final EntityManager em;
     private final ItemRequestService itemRequestService;
+    private final ItemService itemService;
     private final UserService userService;
     private final User user1 = new User();
     private final User user2 = new User();
@@ -51,6 +57,7 @@ class ItemRequestServiceImplIT {
     void tearDown() {
         em.createNativeQuery("ALTER TABLE users ALTER COLUMN id RESTART WITH 1").executeUpdate();
         em.createNativeQuery("ALTER TABLE requests ALTER COLUMN id RESTART WITH 1").executeUpdate();
+        em.createNativeQuery("ALTER TABLE items ALTER COLUMN id RESTART WITH 1").executeUpdate();
     }
 
     @Test
@@ -137,4 +144,53 @@ class ItemRequestServiceImplIT {
         assertThat(dbItemRequest.getDescription(), equalTo("I need Play Station 5"));
         assertThat(dbItemRequest.getItems(), is(empty()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getRequestsFromOthers_ShouldLoadAnswerItemsWithOneQueryForAnyPageSize() {
+        User dbUser1 = userService.createUser(user1);
+        User dbUser2 = userService.createUser(user2);
+        for (int i = 0; i < 5; i++) {
+            Long requestId = itemRequestService.createRequest(dbUser1.getId(),
+                    new ReqItemRequestDto("Request" + i)).getId();
+            itemService.createItem(dbUser2.getId(), new ItemDto(null, "Item" + i, "Answer", true, requestId));
+            itemService.createItem(dbUser2.getId(), new ItemDto(null, "Other" + i, "Answer", true, requestId));
+        }
+        em.flush();
+        em.clear();
+        // Первый вызов запоминает пользователей в UserExistenceService, дальше проверка без обращения к БД
+        itemRequestService.getUserRequests(dbUser1.getId());
+        itemRequestService.getRequestsFromOthers(dbUser2.getId(), 0, 1);
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        // Запрос страницы и один запрос вещей-ответов, сколько бы запросов ни было на странице
+        statistics.clear();
+        List<RespItemRequestDto> smallPage = itemRequestService.getRequestsFromOthers(dbUser2.getId(), 0, 2);
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+        em.clear();
+
+        statistics.clear();
+        List<RespItemRequestDto> fullPage = itemRequestService.getRequestsFromOthers(dbUser2.getId(), 0, 5);
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+        em.clear();
+
+        statistics.clear();
+        List<RespItemRequestDto> userRequests = itemRequestService.getUserRequests(dbUser1.getId());
+        assertThat(statistics.getPrepareStatementCount(), equalTo(2L));
+        statistics.setStatisticsEnabled(false);
+
+        assertThat(smallPage, hasSize(2));
+        assertThat(fullPage, hasSize(5));
+        assertThat(userRequests, hasSize(5));
+        for (RespItemRequestDto request : fullPage) {
+            assertThat(request.getItems(), hasSize(2));
+            assertThat(request.getItems().get(0).getRequestId(), equalTo(request.getId()));
+            assertThat(request.getItems().get(1).getRequestId(), equalTo(request.getId()));
+            assertThat(request.getItems().get(0).getId(), lessThan(request.getItems().get(1).getId()));
+        }
+    }
+}
@@ -9,11 +9,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.model.dto.ReqItemRequestDto;
 import ru.practicum.shareit.request.model.dto.RespItemRequestDto;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceService;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
@@ -33,7 +36,11 @@ class ItemRequestServiceImplTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
     @Mock
+    private ItemRepository itemRepository;
+    @Mock
     private UserService userService;
+    @Mock
+    private UserExistenceService userExistenceService;
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
     private final User user = new User();
@@ -56,7 +63,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getUserRequests_ShouldRThrowNotFoundException() {
-        when(userService.getUserById(anyLong())).thenThrow(NotFoundException.class);
+        when(userExistenceService.exists(anyLong())).thenReturn(false);
 
         final NotFoundException e = assertThrows(
                 NotFoundException.class,
@@ -67,8 +74,9 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getUserRequests_ShouldReturnNonEmptyListOfRespItemRequestDtos() {
-        when(userService.getUserById(anyLong())).thenReturn(user);
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
         when(itemRequestRepository.findByCreatorIdOrderByCreatedDesc(anyLong())).thenReturn(List.of(itemRequest));
+        when(itemRepository.findByRequestIdInOrderById(List.of(1L))).thenReturn(Collections.emptyList());
 
         List<RespItemRequestDto> requests = itemRequestService.getUserRequests(1L);
         assertThat(requests, hasSize(1));
@@ -83,7 +91,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getUserRequests_ShouldReturnEmptyListOfRespItemRequestDtos() {
-        when(userService.getUserById(anyLong())).thenReturn(user);
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
         when(itemRequestRepository.findByCreatorIdOrderByCreatedDesc(anyLong())).thenReturn(Collections.emptyList());
 
         List<RespItemRequestDto> requests = itemRequestService.getUserRequests(1L);
@@ -92,7 +100,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getRequestByReqId_ShouldReturnValidRespItemRequestDto() {
-        when(userService.getUserById(anyLong())).thenReturn(user);
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
         when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.of(itemRequest));
 
         RespItemRequestDto respDto = itemRequestService.getRequestByReqId(1L, 1L);
@@ -105,7 +113,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getRequestByReqId_ShouldThrowNotFoundExceptionForRequest() {
-        when(userService.getUserById(anyLong())).thenReturn(user);
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
         when(itemRequestRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         final NotFoundException e = assertThrows(
@@ -117,11 +125,12 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getRequestsFromOthers_ShouldReturnListOfRespItemRequestDtos() {
-        when(userService.getUserById(anyLong())).thenReturn(user);
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
         when(itemRequestRepository.findByCreatorIdNot(
                 argThat(argument -> argument != 1L),
                 ArgumentMatchers.any(Pageable.class)))
                 .thenReturn(List.of(itemRequest));
+        when(itemRepository.findByRequestIdInOrderById(List.of(1L))).thenReturn(Collections.emptyList());
 
         List<RespItemRequestDto> respDtos = itemRequestService.getRequestsFromOthers(2L, 0, 10);
         assertThat(respDtos, hasSize(1));
@@ -134,9 +143,35 @@ class ItemRequestServiceImplTest {
         assertThat(respDto.getItems(), is(empty()));
     }
 
+    @Test
+    void getRequestsFromOthers_ShouldGroupAnswerItemsByRequest() {
+        ItemRequest otherItemRequest = new ItemRequest();
+        otherItemRequest.setId(2L);
+        otherItemRequest.setCreator(user);
+        otherItemRequest.setDescription("Other Request");
+        otherItemRequest.setCreated(LocalDateTime.now());
+        Item item = Item.builder().id(1L).name("Item1").description("Item1").available(true).request(otherItemRequest)
+                .build();
+        Item otherItem = Item.builder().id(2L).name("Item2").description("Item2").available(true).request(otherItemRequest)
+                .build();
+
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
+        when(itemRequestRepository.findByCreatorIdNot(eq(2L), ArgumentMatchers.any(Pageable.class)))
+                .thenReturn(List.of(itemRequest, otherItemRequest));
+        when(itemRepository.findByRequestIdInOrderById(List.of(1L, 2L))).thenReturn(List.of(item, otherItem));
+
+        List<RespItemRequestDto> respDtos = itemRequestService.getRequestsFromOthers(2L, 0, 10);
+        assertThat(respDtos, hasSize(2));
+
+        assertThat(respDtos.get(0).getItems(), is(empty()));
+        assertThat(respDtos.get(1).getItems(), hasSize(2));
+        assertThat(respDtos.get(1).getItems().get(0).getId(), equalTo(1L));
+        assertThat(respDtos.get(1).getItems().get(1).getRequestId(), equalTo(2L));
+    }
+
     @Test
     void getRequestsFromOthers_ShouldReturnEmptyListOfRespItemRequestDtos() {
-        when(userService.getUserById(anyLong())).thenReturn(user);
+        when(userExistenceService.exists(anyLong())).thenReturn(true);
         when(itemRequestRepository.findByCreatorIdNot(eq(1L),
                 ArgumentMatchers.any(Pageable.class)))
                 .thenReturn(Collections.emptyList());
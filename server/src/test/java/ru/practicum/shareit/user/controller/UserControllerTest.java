@@ -10,6 +10,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.dto.RespUserBatchDto;
+import ru.practicum.shareit.user.model.dto.UserBatchErrorDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
@@ -111,6 +113,39 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.items", hasSize(0)));
     }
 
+    @Test
+    void getUsersByIds_ShouldReturnUserList() throws Exception {
+        when(userService.getUsersByIds(List.of(1L, 2L))).thenReturn(List.of(user));
+
+        mvc.perform(get("/users")
+                        .param("ids", "1,2")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(user.getId()), Long.class));
+    }
+
+    @Test
+    void createUsers_ShouldReturnCreatedUsersAndErrors() throws Exception {
+        User duplicate = new User(null, "Duplicate", "user@gmail.com");
+        when(userService.createUsers(anyList())).thenReturn(new RespUserBatchDto(List.of(user),
+                List.of(new UserBatchErrorDto(1, "user@gmail.com", "Пользователь с email=user@gmail.com уже существует"))));
+
+        mvc.perform(post("/users/batch")
+                        .content(mapper.writeValueAsString(List.of(user, duplicate)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", hasSize(1)))
+                .andExpect(jsonPath("$.created[0].id", is(user.getId()), Long.class))
+                .andExpect(jsonPath("$.errors", hasSize(1)))
+                .andExpect(jsonPath("$.errors[0].index", is(1)))
+                .andExpect(jsonPath("$.errors[0].email", is("user@gmail.com")));
+    }
+
     @Test
     void updateUser_ShouldReturnFullUpdateUser() throws Exception {
         when(userService.updateUser(anyLong(), any(User.class))).thenAnswer(invocationOnMock -> {
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.event.UserCreatedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceServiceTest {
+    @Mock
+    private UserRepository userRepository;
+    @InjectMocks
+    private UserExistenceService userExistenceService;
+
+    @Test
+    void exists_ShouldCheckDatabaseBeforeLoad() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(2L)).thenReturn(false);
+
+        assertThat(userExistenceService.exists(1L), is(true));
+        assertThat(userExistenceService.exists(1L), is(true));
+        assertThat(userExistenceService.exists(2L), is(false));
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    void exists_ShouldNotCheckDatabaseForLoadedUser() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 2L));
+        userExistenceService.load();
+
+        assertThat(userExistenceService.exists(1L), is(true));
+        assertThat(userExistenceService.exists(2L), is(true));
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void exists_ShouldRememberUserFoundInDatabaseAfterLoad() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L));
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(userRepository.existsById(3L)).thenReturn(false);
+        userExistenceService.load();
+
+        assertThat(userExistenceService.exists(2L), is(true));
+        assertThat(userExistenceService.exists(2L), is(true));
+        assertThat(userExistenceService.exists(3L), is(false));
+        verify(userRepository, times(1)).existsById(2L);
+    }
+
+    @Test
+    void exists_ShouldNotRememberUserDeletedDuringDatabaseCheck() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L));
+        // Строка прочитана до коммита удаления, обработчик удаления срабатывает до возврата из existsById
+        when(userRepository.existsById(2L)).thenAnswer(invocation -> {
+            userExistenceService.onUserDeleted(new UserDeletedEvent(2L));
+            return true;
+        }).thenReturn(false);
+        userExistenceService.load();
+
+        assertThat(userExistenceService.exists(2L), is(true));
+        assertThat(userExistenceService.exists(2L), is(false));
+        verify(userRepository, times(2)).existsById(2L);
+    }
+
+    @Test
+    void onUserCreatedAndDeleted_ShouldUpdateLoadedUsers() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L));
+        when(userRepository.existsById(1L)).thenReturn(false);
+        userExistenceService.load();
+
+        userExistenceService.onUserCreated(new UserCreatedEvent(2L));
+        assertThat(userExistenceService.exists(2L), is(true));
+
+        userExistenceService.onUserDeleted(new UserDeletedEvent(1L));
+        assertThat(userExistenceService.exists(1L), is(false));
+        verify(userRepository, never()).existsById(2L);
+    }
+}
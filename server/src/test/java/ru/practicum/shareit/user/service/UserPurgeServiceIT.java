@@ -0,0 +1,115 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.dto.ReqBookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.dto.ReqItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.dto.UserPurgeProgressDto;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Пакет из двух строк, чтобы очистка прошла несколько пакетов по каждой таблице
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.user.purge.batch-size=2")
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class UserPurgeServiceIT {
+    private final EntityManager em;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRequestService itemRequestService;
+    private final UserPurgeService userPurgeService;
+
+    @AfterEach
+    void tearDown() {
+        em.createNativeQuery("ALTER TABLE users ALTER COLUMN id RESTART WITH 1").executeUpdate();
+        em.createNativeQuery("ALTER TABLE items ALTER COLUMN id RESTART WITH 1").executeUpdate();
+        em.createNativeQuery("ALTER TABLE bookings ALTER COLUMN id RESTART WITH 1").executeUpdate();
+        em.createNativeQuery("ALTER TABLE comments ALTER COLUMN id RESTART WITH 1").executeUpdate();
+        em.createNativeQuery("ALTER TABLE requests ALTER COLUMN id RESTART WITH 1").executeUpdate();
+    }
+
+    @Test
+    void purge_ShouldDeleteDataOfDeletedUserAndKeepDataOfOthers() {
+        Long ownerId = userService.createUser(new User(null, "Owner", "owner@gmail.com")).getId();
+        Long otherId = userService.createUser(new User(null, "Other", "other@gmail.com")).getId();
+
+        Long ownerRequestId = itemRequestService.createRequest(ownerId, new ReqItemRequestDto("Нужна пила")).getId();
+        Long otherRequestId = itemRequestService.createRequest(otherId, new ReqItemRequestDto("Нужен молоток")).getId();
+        Long answerId = itemService.createItem(otherId, new ItemDto(null, "Пила", "Ответ", true, ownerRequestId)).getId();
+        for (int i = 0; i < 3; i++) {
+            Long itemId = itemService.createItem(ownerId, new ItemDto(null, "Дрель" + i, "Дрель", true, null)).getId();
+            bookingService.createBooking(otherId, booking(itemId, i));
+            persistComment(itemId, otherId);
+        }
+        bookingService.createBooking(ownerId, booking(answerId, 5));
+        persistComment(answerId, ownerId);
+
+        userService.deleteUserById(ownerId);
+        // В тесте всё выполняется в одной транзакции, загруженный ранее пользователь ещё в контексте
+        em.clear();
+
+        assertThrows(NotFoundException.class, () -> userService.getUserById(ownerId));
+        assertThat(userPurgeService.getProgress().getPendingUsers(), equalTo(1L));
+
+        userPurgeService.purge();
+        em.clear();
+
+        UserPurgeProgressDto progress = userPurgeService.getProgress();
+        assertThat(progress.getPendingUsers(), equalTo(0L));
+        assertThat(progress.getCurrentUserId(), is(nullValue()));
+        assertThat(progress.getPurgedUsers(), equalTo(1L));
+        assertThat(progress.getDeletedComments(), equalTo(4L));
+        assertThat(progress.getDeletedBookings(), equalTo(4L));
+        assertThat(progress.getDeletedItems(), equalTo(3L));
+        assertThat(progress.getDeletedRequests(), equalTo(1L));
+
+        assertThat(count("select count(*) from users"), equalTo(1L));
+        assertThat(count("select count(*) from comments"), equalTo(0L));
+        assertThat(count("select count(*) from bookings"), equalTo(0L));
+        assertThat(count("select count(*) from items"), equalTo(1L));
+        assertThat(em.find(Item.class, answerId).getRequest(), is(nullValue()));
+        assertThat(itemRequestService.getUserRequests(otherId), hasSize(1));
+        assertThat(itemRequestService.getUserRequests(otherId).get(0).getId(), equalTo(otherRequestId));
+    }
+
+    private ReqBookingDto booking(Long itemId, int day) {
+        LocalDateTime start = LocalDateTime.now().plusDays(day + 1);
+        ReqBookingDto booking = new ReqBookingDto();
+        booking.setItemId(itemId);
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(1));
+        return booking;
+    }
+
+    private void persistComment(Long itemId, Long authorId) {
+        em.persist(Comment.builder()
+                .text("Комментарий")
+                .item(em.find(Item.class, itemId))
+                .author(em.find(User.class, authorId))
+                .created(LocalDateTime.now())
+                .build());
+    }
+
+    private long count(String sql) {
+        return ((Number) em.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+}
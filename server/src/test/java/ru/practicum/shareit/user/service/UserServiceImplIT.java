@@ -8,9 +8,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.dto.RespUserBatchDto;
+import ru.practicum.shareit.user.model.dto.UserBatchErrorDto;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -130,4 +133,28 @@ class UserServiceImplIT {
 
         assertThat(deletedUser, is(nullValue()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void createUsers_ShouldInsertUsersInBatchesAndReportTakenEmails() {
+        userService.createUser(user1);
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            users.add(new User(null, "Batch" + i, "batch" + i + "@gmail.com"));
+        }
+        users.add(new User(null, "Duplicate", "user1@gmail.com"));
+
+        RespUserBatchDto result = userService.createUsers(users);
+
+        assertThat(result.getCreated(), hasSize(600));
+        assertThat(result.getCreated().get(0).getId(), equalTo(2L));
+        assertThat(result.getCreated().get(599).getId(), equalTo(601L));
+        assertThat(result.getErrors(), contains(new UserBatchErrorDto(600, "user1@gmail.com",
+                "Пользователь с email=user1@gmail.com уже существует")));
+
+        List<User> dbUsers = userService.getUsersByIds(List.of(601L, 1L, 700L));
+        assertThat(dbUsers, hasSize(2));
+        assertThat(dbUsers.get(0).getEmail(), equalTo("user1@gmail.com"));
+        assertThat(dbUsers.get(1).getEmail(), equalTo("batch599@gmail.com"));
+    }
+}
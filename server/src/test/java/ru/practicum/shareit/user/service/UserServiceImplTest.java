@@ -7,28 +7,44 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.event.UserCreatedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.model.dto.RespUserBatchDto;
+import ru.practicum.shareit.user.model.dto.UserBatchErrorDto;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private UserServiceImpl userService;
     private final User user = new User();
@@ -97,6 +113,39 @@ class UserServiceImplTest {
         assertThat(createUser.getName(), equalTo("User"));
         assertThat(createUser.getEmail(), equalTo("user@gmail.com"));
         assertThat(createUser.getItems(), is(empty()));
+        verify(eventPublisher).publishEvent(argThat((UserCreatedEvent event) -> event.getUserId().equals(1L)));
+    }
+
+    @Test
+    void createUsers_ShouldSkipUsersWithTakenEmails() {
+        List<User> users = List.of(
+                new User(null, "User2", "user@gmail.com"),
+                new User(null, "User3", "user3@gmail.com"),
+                new User(null, "User4", "user3@gmail.com"));
+        when(userRepository.findEmailsByEmailIn(Set.of("user@gmail.com", "user3@gmail.com")))
+                .thenReturn(List.of("user@gmail.com"));
+        doAnswer(invocationOnMock -> {
+            List<User> inserted = invocationOnMock.getArgument(0);
+            inserted.get(0).setId(2L);
+            return null;
+        }).when(userRepository).insertAll(anyList());
+
+        RespUserBatchDto result = userService.createUsers(users);
+
+        assertThat(result.getCreated(), contains(users.get(1)));
+        assertThat(result.getCreated().get(0).getId(), equalTo(2L));
+        assertThat(result.getErrors(), contains(
+                new UserBatchErrorDto(0, "user@gmail.com", "Пользователь с email=user@gmail.com уже существует"),
+                new UserBatchErrorDto(2, "user3@gmail.com", "Пользователь с email=user3@gmail.com уже существует")));
+        verify(userRepository).insertAll(List.of(users.get(1)));
+        verify(eventPublisher).publishEvent(argThat((UserCreatedEvent event) -> event.getUserId().equals(2L)));
+    }
+
+    @Test
+    void getUsersByIds_ShouldReturnUsersFromRepository() {
+        when(userRepository.findByIdInOrderById(List.of(1L, 5L))).thenReturn(List.of(user));
+
+        assertThat(userService.getUsersByIds(List.of(1L, 5L)), contains(user));
     }
 
     @Test
@@ -163,12 +212,34 @@ class UserServiceImplTest {
     }
 
     @Test
-    void deleteUserById_ShouldCallDeleteById() {
-        doNothing().when(userRepository).deleteById(anyLong());
+    void deleteUserById_ShouldMarkUserDeleted() {
+        when(userRepository.markDeleted(1L)).thenReturn(true);
         userService.deleteUserById(1L);
 
-        // Проверка, что метод deleteById был вызван с правильным аргументом - и 1 раз.
-        verify(userRepository).deleteById(1L);
-        verify(userRepository, times(1)).deleteById(1L);
+        // Строка пользователя не удаляется сразу - её вместе с данными удалит фоновая очистка
+        verify(userRepository).markDeleted(1L);
+        verify(userRepository, never()).deleteById(anyLong());
+        verify(eventPublisher).publishEvent(argThat((UserDeletedEvent event) -> event.getUserId().equals(1L)));
+    }
+
+    @Test
+    void deleteUserById_ShouldMakeUserItemsUnavailable() {
+        Item item = new Item(1L, user, "Дрель", "Простая дрель", true, null);
+        when(userRepository.markDeleted(1L)).thenReturn(true);
+        when(itemRepository.findByUserIdAndAvailableTrue(1L)).thenReturn(List.of(item));
+
+        userService.deleteUserById(1L);
+
+        assertThat(item.getAvailable(), is(false));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof ItemSavedEvent
+                && ((ItemSavedEvent) event).getItem().equals(new ItemDto(1L, "Дрель", "Простая дрель", false, null))));
+    }
+
+    @Test
+    void deleteUserById_ShouldThrowNotFoundException() {
+        when(userRepository.markDeleted(1L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> userService.deleteUserById(1L));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongHashMapTest {
+
+    @Test
+    void put_ShouldReturnPreviousValueAndKeepSize() {
+        LongHashMap<String> map = new LongHashMap<>();
+
+        assertThat(map.put(1L, "first"), is(nullValue()));
+        assertThat(map.put(1L, "second"), equalTo("first"));
+        assertThat(map.get(1L), equalTo("second"));
+        assertThat(map.size(), equalTo(1));
+    }
+
+    @Test
+    void get_ShouldReturnValuesForAllKeysAfterGrowth() {
+        LongHashMap<Long> map = new LongHashMap<>();
+        for (long key = -5_000; key < 5_000; key++) {
+            map.put(key * 1024, key);
+        }
+
+        assertThat(map.size(), equalTo(10_000));
+        for (long key = -5_000; key < 5_000; key++) {
+            assertThat(map.get(key * 1024), equalTo(key));
+        }
+        assertThat(map.containsKey(1L), is(false));
+        assertThat(map.get(1L), is(nullValue()));
+    }
+
+    @Test
+    void getOrDefault_ShouldReturnDefaultValueForMissingKey() {
+        LongHashMap<String> map = new LongHashMap<>(1);
+        map.put(0L, "zero");
+
+        assertThat(map.getOrDefault(0L, "default"), equalTo("zero"));
+        assertThat(map.getOrDefault(Long.MAX_VALUE, "default"), equalTo("default"));
+    }
+
+    @Test
+    void computeIfAbsent_ShouldCreateValueOnlyOnce() {
+        LongHashMap<List<String>> map = new LongHashMap<>();
+
+        map.computeIfAbsent(7L, key -> new ArrayList<>()).add("a");
+        map.computeIfAbsent(7L, key -> new ArrayList<>()).add("b");
+
+        assertThat(map.get(7L), contains("a", "b"));
+        assertThat(map.size(), equalTo(1));
+    }
+
+    @Test
+    void put_ShouldThrowNullPointerExceptionForNullValue() {
+        LongHashMap<String> map = new LongHashMap<>();
+
+        assertThrows(NullPointerException.class, () -> map.put(1L, null));
+        assertThat(map.isEmpty(), is(true));
+    }
+
+    @Test
+    void remove_ShouldKeepOtherKeysReachable() {
+        LongHashMap<Long> map = new LongHashMap<>(4);
+        for (long key = 0; key < 1_000; key++) {
+            map.put(key, key);
+        }
+
+        for (long key = 0; key < 1_000; key += 3) {
+            assertThat(map.remove(key), equalTo(key));
+        }
+
+        assertThat(map.remove(0L), is(nullValue()));
+        assertThat(map.size(), equalTo(666));
+        for (long key = 0; key < 1_000; key++) {
+            assertThat(map.get(key), key % 3 == 0 ? is(nullValue()) : equalTo(key));
+        }
+    }
+}